@@ -0,0 +1,83 @@
+package com.example.jwtuserservice.benchmarks;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.SignatureAlgorithm;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.security.KeyPair;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Signing and verification cost of asymmetric algorithms with the same claims {@code JwtUtil} issues, for comparison
+ * with {@link JwtUtilBenchmark}. {@code JwtUtil} itself only supports HMAC keys, so these run against jjwt directly.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AsymmetricJwtBenchmark {
+    
+    @Param({"RS256", "PS256", "ES256", "EdDSA"})
+    private String algorithm;
+    
+    private SignatureAlgorithm signatureAlgorithm;
+    private KeyPair keyPair;
+    private JwtParser parser;
+    private String token;
+    
+    @Setup
+    public void setup() {
+        switch (algorithm) {
+            case "PS256":
+                signatureAlgorithm = Jwts.SIG.PS256;
+                break;
+            case "ES256":
+                signatureAlgorithm = Jwts.SIG.ES256;
+                break;
+            case "EdDSA":
+                signatureAlgorithm = Jwts.SIG.EdDSA;
+                break;
+            default:
+                signatureAlgorithm = Jwts.SIG.RS256;
+                break;
+        }
+        keyPair = signatureAlgorithm.keyPair().build();
+        parser = Jwts.parser().verifyWith(keyPair.getPublic()).build();
+        token = sign();
+    }
+    
+    @Benchmark
+    public String sign() {
+        long now = System.currentTimeMillis();
+        return Jwts.builder()
+                .claim("roles", List.of("USER"))
+                .id(UUID.randomUUID().toString())
+                .subject("benchmark-user")
+                .issuedAt(new Date(now))
+                .expiration(new Date(now + 900_000L))
+                .signWith(keyPair.getPrivate(), signatureAlgorithm)
+                .compact();
+    }
+    
+    @Benchmark
+    public Claims verify() {
+        return parser.parseSignedClaims(token).getPayload();
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.jwtuserservice.benchmarks;
+
+import com.example.jwtuserservice.dto.AuthRequest;
+import com.example.jwtuserservice.dto.AuthResponse;
+import com.example.jwtuserservice.service.AuthService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The full sign-in flow ({@link AuthService#authenticate}) against an in-memory H2 database, for each password
+ * encoder at its configured cost. Password hashing dominates, so this mostly tracks encoder settings and the
+ * overhead around them (credential cache, hashing pool hand-off, token generation).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class AuthServiceBenchmark {
+    
+    private static final String USERNAME = "benchmark-user";
+    private static final String PASSWORD = "benchmark-password";
+    
+    @Param({"bcrypt", "argon2", "pbkdf2"})
+    private String encoder;
+    
+    private ConfigurableApplicationContext context;
+    private AuthService authService;
+    private AuthRequest validCredentials;
+    private AuthRequest wrongPassword;
+    private String refreshToken;
+    
+    @Setup
+    public void setup() {
+        context = BenchmarkApplication.start("--auth.password.encoder=" + encoder);
+        authService = context.getBean(AuthService.class);
+        validCredentials = new AuthRequest(USERNAME, PASSWORD);
+        wrongPassword = new AuthRequest(USERNAME, "not-the-password");
+        refreshToken = authService.signUp(validCredentials).getRefreshToken();
+    }
+    
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+    
+    @Benchmark
+    public AuthResponse authenticate() {
+        return authService.authenticate(validCredentials);
+    }
+    
+    @Benchmark
+    public boolean authenticateWrongPassword() {
+        try {
+            authService.authenticate(wrongPassword);
+            return true;
+        } catch (RuntimeException e) {
+            return false;
+        }
+    }
+    
+    @Benchmark
+    public AuthResponse refreshToken() {
+        return authService.refreshToken(refreshToken);
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.jwtuserservice.benchmarks;
+
+import com.example.jwtuserservice.JwtUserServiceApplication;
+import com.example.jwtuserservice.dto.UserDto;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Starts the full application against a fresh in-memory H2 database, quietly, for benchmarks that need real beans.
+ * With {@code -Dbenchmark.datasource.url=jdbc:mysql://...} (and optionally {@code benchmark.datasource.username} and
+ * {@code benchmark.datasource.password}) it uses that MySQL database instead; its schema is recreated on every start.
+ */
+final class BenchmarkApplication {
+    
+    private static final String[] FIRST_NAMES = {
+            "John", "Jane", "Mike", "Sarah", "David", "Emma", "Chris", "Olivia", "Daniel", "Sophia",
+            "James", "Mia", "Robert", "Ava", "William", "Isabella", "Joseph", "Amelia", "Thomas", "Charlotte"
+    };
+    
+    private static final String[] LAST_NAMES = {
+            "Smith", "Johnson", "Williams", "Brown", "Jones", "Garcia", "Miller", "Davis", "Rodriguez", "Martinez",
+            "Hernandez", "Lopez", "Gonzalez", "Wilson", "Anderson", "Thomas", "Taylor", "Moore", "Jackson", "Martin"
+    };
+    
+    private BenchmarkApplication() {}
+    
+    static ConfigurableApplicationContext start(String... overrides) {
+        // Command-line arguments outrank the MySQL settings in the bundled application.properties
+        List<String> args = new ArrayList<>(mysqlUrl() != null ? mysqlDataSource() : h2DataSource());
+        args.addAll(List.of(
+                "--spring.jpa.show-sql=false",
+                "--spring.main.banner-mode=off",
+                "--server.port=0",
+                "--request-log.enabled=false",
+                "--logging.level.root=WARN",
+                "--logging.level.com.example=WARN",
+                "--logging.level.org.springframework.security=WARN",
+                "--logging.level.org.hibernate.SQL=WARN"
+        ));
+        args.addAll(Arrays.asList(overrides));
+        return SpringApplication.run(JwtUserServiceApplication.class, args.toArray(new String[0]));
+    }
+    
+    static boolean isMySql() {
+        return mysqlUrl() != null;
+    }
+    
+    private static String mysqlUrl() {
+        return System.getProperty("benchmark.datasource.url");
+    }
+    
+    private static List<String> h2DataSource() {
+        return List.of(
+                "--spring.datasource.url=jdbc:h2:mem:bench-" + UUID.randomUUID()
+                        + ";DB_CLOSE_DELAY=-1;MODE=MySQL;DATABASE_TO_LOWER=TRUE",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"
+        );
+    }
+    
+    private static List<String> mysqlDataSource() {
+        return List.of(
+                "--spring.datasource.url=" + mysqlUrl(),
+                "--spring.datasource.username=" + System.getProperty("benchmark.datasource.username", "root"),
+                "--spring.datasource.password=" + System.getProperty("benchmark.datasource.password", "password"),
+                "--spring.jpa.hibernate.ddl-auto=create-drop"
+        );
+    }
+    
+    /**
+     * Deterministic users; first and last names cycle independently so prefix searches have realistic selectivity.
+     */
+    static Iterator<UserDto> sampleUsers(int count) {
+        return new Iterator<>() {
+            
+            private int next;
+            
+            @Override
+            public boolean hasNext() {
+                return next < count;
+            }
+            
+            @Override
+            public UserDto next() {
+                int i = next++;
+                String firstName = FIRST_NAMES[i % FIRST_NAMES.length];
+                String lastName = LAST_NAMES[(i / FIRST_NAMES.length) % LAST_NAMES.length] + (i / 400);
+                return new UserDto(null, firstName, lastName, 18 + i % 60, new Date(0));
+            }
+        };
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.jwtuserservice.benchmarks;
+
+import com.example.jwtuserservice.security.AuthMetrics;
+import com.example.jwtuserservice.security.InMemoryTokenRevocationStore;
+import com.example.jwtuserservice.security.JwtAuthenticationFilter;
+import com.example.jwtuserservice.security.JwtUtil;
+import com.example.jwtuserservice.security.VerifiedTokenCache;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request cost of {@link JwtAuthenticationFilter} on an authenticated request: header parsing, token verification
+ * (cache hit or full parse), revocation check and security context setup. {@code noToken} is the same filter on an
+ * anonymous request, i.e. the fixed overhead of the filter itself.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtAuthenticationFilterBenchmark {
+    
+    @Param({"false", "true"})
+    private boolean verifiedTokenCache;
+    
+    private JwtAuthenticationFilter filter;
+    private String authorization;
+    
+    // Records the authenticated principal so the work can't be optimized away
+    private final FilterChain chain = (request, response) ->
+            ((MockHttpServletRequest) request).setAttribute("principal",
+                    SecurityContextHolder.getContext().getAuthentication());
+    
+    @Setup
+    public void setup() {
+        VerifiedTokenCache cache = new VerifiedTokenCache();
+        ReflectionTestUtils.setField(cache, "enabled", verifiedTokenCache);
+        ReflectionTestUtils.setField(cache, "maxSize", 100_000L);
+        ReflectionTestUtils.setField(cache, "maxTtlMillis", 86_400_000L);
+        cache.init();
+        
+        JwtUtil jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "secret", "benchmark-secret-benchmark-secre");
+        ReflectionTestUtils.setField(jwtUtil, "expiration", 900_000L);
+        ReflectionTestUtils.setField(jwtUtil, "refreshExpiration", 86_400_000L);
+        ReflectionTestUtils.setField(jwtUtil, "verifiedTokenCache", cache);
+        ReflectionTestUtils.setField(jwtUtil, "tokenRevocationStore", new InMemoryTokenRevocationStore());
+        jwtUtil.init();
+        
+        AuthMetrics authMetrics = new AuthMetrics();
+        authMetrics.init();
+        filter = new JwtAuthenticationFilter(jwtUtil, authMetrics);
+        authorization = "Bearer " + jwtUtil.generateAccessToken(
+                User.withUsername("benchmark-user").password("unused").authorities("USER").build());
+    }
+    
+    @Benchmark
+    public void validToken(Blackhole blackhole) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/users/1");
+        request.addHeader(HttpHeaders.AUTHORIZATION, authorization);
+        run(request, blackhole);
+    }
+    
+    @Benchmark
+    public void noToken(Blackhole blackhole) throws Exception {
+        run(new MockHttpServletRequest("GET", "/api/users/1"), blackhole);
+    }
+    
+    private void run(MockHttpServletRequest request, Blackhole blackhole) throws Exception {
+        try {
+            filter.doFilter(request, new MockHttpServletResponse(), chain);
+            blackhole.consume(request.getAttribute("principal"));
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+}
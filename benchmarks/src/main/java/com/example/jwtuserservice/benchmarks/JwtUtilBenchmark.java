@@ -0,0 +1,124 @@
+package com.example.jwtuserservice.benchmarks;
+
+import com.example.jwtuserservice.security.JwtUtil;
+import com.example.jwtuserservice.security.TokenRevocationStore;
+import com.example.jwtuserservice.security.VerifiedToken;
+import com.example.jwtuserservice.security.VerifiedTokenCache;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token generation and verification through {@link JwtUtil} for each HMAC strength. The HMAC variant is picked by
+ * {@code jwt.secret} length (32, 48 or 64 bytes). With {@code verifiedTokenCache=false} every {@code verify} parses
+ * and checks the signature; with {@code true} repeat verifications are cache hits.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtUtilBenchmark {
+    
+    @Param({"HS256", "HS384", "HS512"})
+    private String algorithm;
+    
+    @Param({"false", "true"})
+    private boolean verifiedTokenCache;
+    
+    private JwtUtil jwtUtil;
+    private UserDetails user;
+    private String accessToken;
+    private byte[] secretBytes;
+    
+    @Setup
+    public void setup() {
+        String secret = secretFor(algorithm);
+        secretBytes = secret.getBytes(StandardCharsets.UTF_8);
+        
+        VerifiedTokenCache cache = new VerifiedTokenCache();
+        ReflectionTestUtils.setField(cache, "enabled", verifiedTokenCache);
+        ReflectionTestUtils.setField(cache, "maxSize", 100_000L);
+        ReflectionTestUtils.setField(cache, "maxTtlMillis", 86_400_000L);
+        cache.init();
+        
+        jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "secret", secret);
+        ReflectionTestUtils.setField(jwtUtil, "expiration", 900_000L);
+        ReflectionTestUtils.setField(jwtUtil, "refreshExpiration", 86_400_000L);
+        ReflectionTestUtils.setField(jwtUtil, "verifiedTokenCache", cache);
+        ReflectionTestUtils.setField(jwtUtil, "tokenRevocationStore", new NoRevocations());
+        jwtUtil.init();
+        
+        user = User.withUsername("benchmark-user").password("unused").authorities("USER").build();
+        accessToken = jwtUtil.generateAccessToken(user);
+    }
+    
+    @Benchmark
+    public String generateAccessToken() {
+        return jwtUtil.generateAccessToken(user);
+    }
+    
+    @Benchmark
+    public String generateRefreshToken() {
+        return jwtUtil.generateRefreshToken(user);
+    }
+    
+    @Benchmark
+    public VerifiedToken verify() {
+        return jwtUtil.verify(accessToken);
+    }
+    
+    // Baseline: the original extractAllClaims derived the key and built a parser on every call
+    @Benchmark
+    public Claims verifyWithPerCallKey() {
+        return Jwts.parser()
+                .verifyWith(Keys.hmacShaKeyFor(secretBytes))
+                .build()
+                .parseSignedClaims(accessToken)
+                .getPayload();
+    }
+    
+    private static String secretFor(String algorithm) {
+        String material = "benchmark-secret-benchmark-secret-benchmark-secret-benchmark-secret";
+        switch (algorithm) {
+            case "HS512":
+                return material.substring(0, 64);
+            case "HS384":
+                return material.substring(0, 48);
+            default:
+                return material.substring(0, 32);
+        }
+    }
+    
+    private static final class NoRevocations implements TokenRevocationStore {
+        
+        @Override
+        public void revoke(String tokenId, Instant expiresAt) {
+        }
+        
+        @Override
+        public boolean isRevoked(String tokenId) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.jwtuserservice.benchmarks;
+
+import com.example.jwtuserservice.config.ConcurrencyLimitingDataSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A burst of {@value #REQUESTS} concurrent requests served by Tomcat's default 200 platform worker threads or by one
+ * virtual thread per request, as with the {@code virtual-threads} profile. {@code dbPercent} of the requests hold a
+ * connection from a {@link ConcurrencyLimitingDataSource} with {@value #POOL_SIZE} permits for
+ * {@value #QUERY_MILLIS} ms inside a monitor, like a JDBC driver doing socket I/O; the rest block for
+ * {@value #OTHER_MILLIS} ms without a connection. Reports the time to finish the whole burst.
+ *
+ * <p>{@code threads=virtual} needs a Java 21 runtime; the executor is looked up reflectively so the module still
+ * builds for Java 17.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ThreadModelBenchmark {
+    
+    private static final int REQUESTS = 2000;
+    private static final int PLATFORM_THREADS = 200;
+    private static final int POOL_SIZE = 10;
+    private static final long QUERY_MILLIS = 5;
+    private static final long OTHER_MILLIS = 2;
+    
+    @Param({"platform", "virtual"})
+    private String threads;
+    
+    @Param({"10", "50"})
+    private int dbPercent;
+    
+    private ExecutorService executor;
+    private ConcurrencyLimitingDataSource dataSource;
+    
+    @Setup
+    public void setup() {
+        executor = "virtual".equals(threads)
+                ? virtualThreadPerTaskExecutor()
+                : Executors.newFixedThreadPool(PLATFORM_THREADS);
+        dataSource = new ConcurrencyLimitingDataSource(new FakeDataSource(), POOL_SIZE, 60_000);
+    }
+    
+    @TearDown
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+    
+    @Benchmark
+    public void burst() throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(REQUESTS);
+        for (int i = 0; i < REQUESTS; i++) {
+            boolean usesDatabase = i % 100 < dbPercent;
+            executor.execute(() -> {
+                try {
+                    if (usesDatabase) {
+                        query();
+                    } else {
+                        Thread.sleep(OTHER_MILLIS);
+                    }
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        done.await();
+    }
+    
+    private void query() throws Exception {
+        try (Connection connection = dataSource.getConnection()) {
+            // Blocking while holding a monitor pins a virtual thread's carrier, as synchronized driver I/O does
+            synchronized (connection) {
+                Thread.sleep(QUERY_MILLIS);
+            }
+        }
+    }
+    
+    private static ExecutorService virtualThreadPerTaskExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException("threads=virtual needs a Java 21 runtime");
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+    
+    // Hands out connections that do nothing; the permits in ConcurrencyLimitingDataSource play the pool
+    private static final class FakeDataSource extends AbstractDataSource {
+        
+        @Override
+        public Connection getConnection() {
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                    new Class<?>[]{Connection.class}, (proxy, method, args) -> null);
+        }
+        
+        @Override
+        public Connection getConnection(String username, String password) {
+            return getConnection();
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.jwtuserservice.benchmarks;
+
+import com.example.jwtuserservice.dto.BatchRowResult;
+import com.example.jwtuserservice.dto.UserDto;
+import com.example.jwtuserservice.service.UserBatchService;
+import com.example.jwtuserservice.service.UserService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Insert throughput for {@link #ROWS} users per operation: the chunked, JDBC-batched {@link UserBatchService} against
+ * one {@code UserService.createUser} call (and transaction) per row. {@code idAllocationSize=1} replaces the pooled
+ * sequence generators with one sequence round-trip per row, which also stops Hibernate from batching the inserts.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserBatchInsertBenchmark {
+    
+    static final int ROWS = 1000;
+    
+    @Param({"1", "100"})
+    private int idAllocationSize;
+    
+    private ConfigurableApplicationContext context;
+    private UserBatchService userBatchService;
+    private UserService userService;
+    
+    @Setup
+    public void setup() {
+        context = idAllocationSize == 1
+                ? BenchmarkApplication.start("--spring.jpa.mapping-resources=META-INF/orm-allocation-size-1.xml")
+                : BenchmarkApplication.start();
+        userBatchService = context.getBean(UserBatchService.class);
+        userService = context.getBean(UserService.class);
+    }
+    
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+    
+    @Benchmark
+    public List<BatchRowResult> batched() {
+        return userBatchService.createUsers(BenchmarkApplication.sampleUsers(ROWS));
+    }
+    
+    @Benchmark
+    public void oneByOne(Blackhole blackhole) {
+        Iterator<UserDto> rows = BenchmarkApplication.sampleUsers(ROWS);
+        while (rows.hasNext()) {
+            blackhole.consume(userService.createUser(rows.next()));
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.jwtuserservice.benchmarks;
+
+import com.example.jwtuserservice.dto.UserDto;
+import com.example.jwtuserservice.entity.User;
+import com.example.jwtuserservice.service.UserMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity to DTO mapping ({@link UserMapper}, formerly {@code UserService.convertToDto}) for lists of various sizes.
+ * Run with {@code -prof gc} to see allocation per mapped user.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserMapperBenchmark {
+    
+    @Param({"1", "100", "10000"})
+    private int size;
+    
+    private List<User> users;
+    private List<UserDto> dtos;
+    
+    @Setup
+    public void setup() {
+        users = new ArrayList<>(size);
+        dtos = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            User user = new User("First" + i, "Last" + i, 30, new Date(0));
+            user.setId((long) i + 1);
+            user.setVersion(0L);
+            users.add(user);
+            dtos.add(UserMapper.toDto(user));
+        }
+    }
+    
+    @Benchmark
+    public List<UserDto> toDto() {
+        List<UserDto> result = new ArrayList<>(users.size());
+        for (User user : users) {
+            result.add(UserMapper.toDto(user));
+        }
+        return result;
+    }
+    
+    @Benchmark
+    public List<User> toEntity() {
+        List<User> result = new ArrayList<>(dtos.size());
+        for (UserDto dto : dtos) {
+            result.add(UserMapper.toEntity(dto));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.jwtuserservice.benchmarks;
+
+import com.example.jwtuserservice.dto.UserDto;
+import com.example.jwtuserservice.entity.User;
+import com.example.jwtuserservice.repository.UserRepository;
+import com.example.jwtuserservice.service.UserBatchService;
+import com.example.jwtuserservice.service.UserMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The two ways of reading users: managed entities mapped with {@link UserMapper} (how {@code UserService} read before
+ * the DTO projections) against the {@code SELECT new UserDto(...)} projections it uses now, for the full list, a
+ * keyset page of 100 and a single user. Both run in read-only transactions, as they do in the service. Run with
+ * {@code -prof gc} to compare allocation per operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserReadPathBenchmark {
+    
+    private static final int PAGE_SIZE = 100;
+    
+    @Param({"1000", "10000"})
+    private int tableSize;
+    
+    private ConfigurableApplicationContext context;
+    private UserRepository userRepository;
+    private EntityManager entityManager;
+    private TransactionTemplate transaction;
+    private long maxId;
+    
+    @Setup
+    public void setup() {
+        context = BenchmarkApplication.start();
+        userRepository = context.getBean(UserRepository.class);
+        entityManager = SharedEntityManagerCreator.createSharedEntityManager(
+                context.getBean(EntityManagerFactory.class));
+        transaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        transaction.setReadOnly(true);
+        context.getBean(UserBatchService.class).createUsers(BenchmarkApplication.sampleUsers(tableSize));
+        maxId = context.getBean(JdbcTemplate.class).queryForObject("SELECT MAX(id) FROM users", Long.class);
+    }
+    
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+    
+    @Benchmark
+    public List<UserDto> allEntities() {
+        return transaction.execute(status -> toDtos(userRepository.findAll()));
+    }
+    
+    @Benchmark
+    public List<UserDto> allProjected() {
+        return transaction.execute(status -> userRepository.findAllDtos());
+    }
+    
+    @Benchmark
+    public List<UserDto> pageEntities() {
+        long afterId = ThreadLocalRandom.current().nextLong(maxId);
+        return transaction.execute(status -> toDtos(entityManager
+                .createQuery("SELECT u FROM User u WHERE u.id > :afterId ORDER BY u.id", User.class)
+                .setParameter("afterId", afterId)
+                .setMaxResults(PAGE_SIZE)
+                .getResultList()));
+    }
+    
+    @Benchmark
+    public List<UserDto> pageProjected() {
+        long afterId = ThreadLocalRandom.current().nextLong(maxId);
+        return transaction.execute(status -> userRepository.findDtosAfterId(afterId, Limit.of(PAGE_SIZE)));
+    }
+    
+    @Benchmark
+    public UserDto byIdEntity() {
+        long id = ThreadLocalRandom.current().nextLong(1, maxId + 1);
+        return transaction.execute(status -> userRepository.findById(id).map(UserMapper::toDto).orElse(null));
+    }
+    
+    @Benchmark
+    public UserDto byIdProjected() {
+        long id = ThreadLocalRandom.current().nextLong(1, maxId + 1);
+        return transaction.execute(status -> userRepository.findDtoById(id).orElse(null));
+    }
+    
+    private static List<UserDto> toDtos(List<User> users) {
+        List<UserDto> result = new ArrayList<>(users.size());
+        for (User user : users) {
+            result.add(UserMapper.toDto(user));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.jwtuserservice.benchmarks;
+
+import com.example.jwtuserservice.dto.UserDto;
+import com.example.jwtuserservice.service.UserBatchService;
+import com.example.jwtuserservice.service.UserService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link UserService} reads at several table sizes against an in-memory H2 database, for the original
+ * {@code LIKE '%term%'} search ({@code contains}), the indexed prefix search and the in-memory trigram index.
+ * {@code getAllUsers} is included to show how a full-table read grows with the table.
+ *
+ * <p>{@code fulltext} needs MySQL: run with {@code -p searchMode=contains,prefix,trigram,fulltext} and
+ * {@code -jvmArgsAppend -Dbenchmark.datasource.url=jdbc:mysql://...} (see {@link BenchmarkApplication}).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserServiceBenchmark {
+    
+    @Param({"1000", "10000", "100000"})
+    private int tableSize;
+    
+    @Param({"contains", "prefix", "trigram"})
+    private String searchMode;
+    
+    private ConfigurableApplicationContext context;
+    private UserService userService;
+    private long maxId;
+    
+    @Setup
+    public void setup() {
+        if ("fulltext".equals(searchMode) && !BenchmarkApplication.isMySql()) {
+            throw new IllegalStateException("searchMode=fulltext needs -Dbenchmark.datasource.url=jdbc:mysql://...");
+        }
+        context = BenchmarkApplication.start("--users.search.mode=" + searchMode);
+        userService = context.getBean(UserService.class);
+        context.getBean(UserBatchService.class).createUsers(BenchmarkApplication.sampleUsers(tableSize));
+        maxId = context.getBean(JdbcTemplate.class).queryForObject("SELECT MAX(id) FROM users", Long.class);
+    }
+    
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+    
+    @Benchmark
+    public List<UserDto> searchSingleWordPrefix() {
+        return userService.searchUsers("jo");
+    }
+    
+    @Benchmark
+    public List<UserDto> searchFirstAndLastName() {
+        return userService.searchUsers("john smi");
+    }
+    
+    @Benchmark
+    public List<UserDto> searchNoMatch() {
+        return userService.searchUsers("zzzz");
+    }
+    
+    @Benchmark
+    public List<UserDto> getUsersPage() {
+        return userService.getUsersPage(ThreadLocalRandom.current().nextLong(maxId), 100);
+    }
+    
+    @Benchmark
+    public Optional<UserDto> getUserById() {
+        return userService.getUserById(ThreadLocalRandom.current().nextLong(1, maxId + 1));
+    }
+    
+    @Benchmark
+    public List<UserDto> getAllUsers() {
+        return userService.getAllUsers();
+    }
+}
@@ -0,0 +1,18 @@
+-- Migration: switch users/login id generation from AUTO_INCREMENT to Hibernate's pooled allocator.
+--
+-- MySQL has no sequences, so Hibernate emulates users_id_seq and login_id_seq as single-row tables and reserves
+-- ids in blocks of 100 (allocationSize on User.id / Login.id). Run this once against an existing database before
+-- starting the new version. The seed value leaves a full block of headroom above the highest existing id, because
+-- the pooled optimizer treats the stored value as the upper end of the next block.
+--
+-- The AUTO_INCREMENT attribute on the id columns can stay; it is simply no longer used.
+
+USE jwt_user_db;
+
+CREATE TABLE IF NOT EXISTS users_id_seq (next_val BIGINT);
+DELETE FROM users_id_seq;
+INSERT INTO users_id_seq (next_val) SELECT COALESCE(MAX(id), 0) + 101 FROM users;
+
+CREATE TABLE IF NOT EXISTS login_id_seq (next_val BIGINT);
+DELETE FROM login_id_seq;
+INSERT INTO login_id_seq (next_val) SELECT COALESCE(MAX(id), 0) + 101 FROM login;
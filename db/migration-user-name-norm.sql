@@ -0,0 +1,17 @@
+-- Migration: add the normalized search columns used by User.firstNameNormalized / User.lastNameNormalized.
+-- Run once against an existing database before starting the new version.
+--
+-- The columns are left NULL here: SQL's LOWER() does not strip accents the way User.normalizeName does, so the
+-- application backfills every row with a NULL normalized name on startup (NormalizedNameBackfill). A database
+-- created by an earlier init.sql already has the columns, filled with LOWER() only; for it, skip the ALTER TABLE
+-- and run just the UPDATE so the accented names are recomputed.
+
+USE jwt_user_db;
+
+ALTER TABLE users
+    ADD COLUMN first_name_norm VARCHAR(50),
+    ADD COLUMN last_name_norm VARCHAR(50),
+    ADD INDEX idx_users_first_name_norm (first_name_norm),
+    ADD INDEX idx_users_last_name_norm (last_name_norm);
+
+UPDATE users SET first_name_norm = NULL, last_name_norm = NULL;
@@ -0,0 +1,6 @@
+-- Migration: add the optimistic-concurrency version column used by User.version.
+-- Run once against an existing database before starting the new version.
+
+USE jwt_user_db;
+
+ALTER TABLE users ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,81 @@
+import axios from 'axios';
+
+export const API_BASE_URL = process.env.REACT_APP_API_URL || 'http://localhost:8080';
+
+// Create axios instance with base configuration
+const api = axios.create({
+  baseURL: API_BASE_URL,
+  headers: {
+    'Content-Type': 'application/json',
+  },
+});
+
+// Request interceptor to add auth token
+api.interceptors.request.use(
+  (config) => {
+    const token = localStorage.getItem('accessToken');
+    if (token && !config.headers.Authorization) {
+      config.headers.Authorization = `Bearer ${token}`;
+    }
+    return config;
+  },
+  (error) => {
+    return Promise.reject(error);
+  }
+);
+
+// Shared by every request that gets a 401 while a refresh is already under way
+let refreshInFlight = null;
+
+const refreshTokens = () => {
+  if (!refreshInFlight) {
+    const refreshToken = localStorage.getItem('refreshToken');
+    if (!refreshToken) {
+      return Promise.reject(new Error('No refresh token'));
+    }
+    // Plain axios, not the api instance, so a failed refresh never re-enters this interceptor
+    refreshInFlight = axios.post(`${API_BASE_URL}/api/auth/refresh`, {}, {
+      headers: {
+        'Authorization': `Bearer ${refreshToken}`
+      }
+    })
+      .then((response) => {
+        const { accessToken, refreshToken: newRefreshToken } = response.data;
+        localStorage.setItem('accessToken', accessToken);
+        localStorage.setItem('refreshToken', newRefreshToken);
+        return accessToken;
+      })
+      .finally(() => {
+        refreshInFlight = null;
+      });
+  }
+  return refreshInFlight;
+};
+
+// Response interceptor: on 401 refresh once and retry the original request once
+api.interceptors.response.use(
+  (response) => response,
+  async (error) => {
+    const originalRequest = error.config;
+
+    // Sign-in, sign-up and refresh answer 401 for bad credentials; refreshing would not help there
+    const isAuthRequest = originalRequest?.url?.startsWith('/api/auth/');
+    if (error.response?.status !== 401 || !originalRequest || originalRequest._retry || isAuthRequest) {
+      return Promise.reject(error);
+    }
+    originalRequest._retry = true;
+
+    try {
+      const accessToken = await refreshTokens();
+      originalRequest.headers.Authorization = `Bearer ${accessToken}`;
+      return api(originalRequest);
+    } catch (refreshError) {
+      localStorage.removeItem('accessToken');
+      localStorage.removeItem('refreshToken');
+      window.location.href = '/login';
+      return Promise.reject(refreshError);
+    }
+  }
+);
+
+export default api;
@@ -7,7 +7,12 @@ CREATE TABLE IF NOT EXISTS users (
     first_name VARCHAR(50) NOT NULL,
     last_name VARCHAR(50) NOT NULL,
     age INT,
-    birthday DATE
+    birthday DATE,
+    first_name_norm VARCHAR(50),
+    last_name_norm VARCHAR(50),
+    version BIGINT NOT NULL DEFAULT 0,
+    INDEX idx_users_first_name_norm (first_name_norm),
+    INDEX idx_users_last_name_norm (last_name_norm)
 );
 
 -- Create login table
@@ -19,15 +24,25 @@ CREATE TABLE IF NOT EXISTS login (
     FOREIGN KEY (user_id) REFERENCES users(id)
 );
 
--- Insert sample data
-INSERT INTO users (first_name, last_name, age, birthday) VALUES
-('John', 'Doe', 30, '1993-05-15'),
-('Jane', 'Smith', 25, '1998-08-22'),
-('Mike', 'Johnson', 35, '1988-12-10');
+-- Insert sample data; the normalized columns hold what User.normalizeName returns (trimmed, lower-cased,
+-- accents stripped). Rows inserted without them are backfilled by the application on startup.
+INSERT INTO users (first_name, last_name, age, birthday, first_name_norm, last_name_norm) VALUES
+('John', 'Doe', 30, '1993-05-15', 'john', 'doe'),
+('Jane', 'Smith', 25, '1998-08-22', 'jane', 'smith'),
+('Mike', 'Johnson', 35, '1988-12-10', 'mike', 'johnson');
+
+-- Optional, only needed for users.search.mode=fulltext (the application creates it on startup if missing):
+-- CREATE FULLTEXT INDEX idx_users_name_fulltext ON users (first_name, last_name) WITH PARSER ngram;
 
 -- Insert sample login credentials (password: password123)
 -- Using correct BCrypt hash for "password123"
 INSERT INTO login (username, password, user_id) VALUES
 ('john.doe', '$2a$10$N.zmdr9k7uOCQb376NoUnuTJ8iAt6Z5EHsM8lE9lBOsl7iKTVEFDa', 1),
 ('jane.smith', '$2a$10$N.zmdr9k7uOCQb376NoUnuTJ8iAt6Z5EHsM8lE9lBOsl7iKTVEFDa', 2),
-('mike.johnson', '$2a$10$N.zmdr9k7uOCQb376NoUnuTJ8iAt6Z5EHsM8lE9lBOsl7iKTVEFDa', 3); 
\ No newline at end of file
+('mike.johnson', '$2a$10$N.zmdr9k7uOCQb376NoUnuTJ8iAt6Z5EHsM8lE9lBOsl7iKTVEFDa', 3); 
+-- Id allocator tables for the pooled id generators (see db/migration-pooled-ids.sql)
+CREATE TABLE IF NOT EXISTS users_id_seq (next_val BIGINT);
+INSERT INTO users_id_seq (next_val) SELECT COALESCE(MAX(id), 0) + 101 FROM users;
+
+CREATE TABLE IF NOT EXISTS login_id_seq (next_val BIGINT);
+INSERT INTO login_id_seq (next_val) SELECT COALESCE(MAX(id), 0) + 101 FROM login;
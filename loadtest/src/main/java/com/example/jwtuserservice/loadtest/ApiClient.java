@@ -0,0 +1,99 @@
+package com.example.jwtuserservice.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Thin blocking client for the service's REST API on top of the JDK {@link HttpClient}.
+ */
+class ApiClient {
+    
+    private final HttpClient http;
+    private final String baseUrl;
+    private final Duration timeout;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    
+    ApiClient(String baseUrl, Duration timeout) {
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        this.timeout = timeout;
+        this.http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(timeout)
+                .build();
+    }
+    
+    HttpResponse<String> get(String path, String token) throws IOException, InterruptedException {
+        return send("GET", path, token, null);
+    }
+    
+    HttpResponse<String> post(String path, String token, Object body) throws IOException, InterruptedException {
+        return send("POST", path, token, body);
+    }
+    
+    HttpResponse<String> put(String path, String token, Object body) throws IOException, InterruptedException {
+        return send("PUT", path, token, body);
+    }
+    
+    HttpResponse<String> delete(String path, String token) throws IOException, InterruptedException {
+        return send("DELETE", path, token, null);
+    }
+    
+    /**
+     * Signs up (or, if the account exists, signs in) and stores the returned tokens on the session.
+     */
+    void register(Session session) throws IOException, InterruptedException {
+        Map<String, String> credentials = credentials(session);
+        HttpResponse<String> response = post("/api/auth/signup", null, credentials);
+        if (response.statusCode() != 201) {
+            response = post("/api/auth/signin", null, credentials);
+        }
+        if (!storeTokens(session, response)) {
+            throw new IllegalStateException("Could not sign up or sign in " + session.username
+                    + ": HTTP " + response.statusCode());
+        }
+    }
+    
+    boolean storeTokens(Session session, HttpResponse<String> response) throws IOException {
+        if (response.statusCode() / 100 != 2) {
+            return false;
+        }
+        JsonNode body = objectMapper.readTree(response.body());
+        session.accessToken = body.path("accessToken").asText();
+        session.refreshToken = body.path("refreshToken").asText();
+        return true;
+    }
+    
+    Long readId(HttpResponse<String> response) throws IOException {
+        JsonNode id = objectMapper.readTree(response.body()).get("id");
+        return id != null && id.canConvertToLong() ? id.asLong() : null;
+    }
+    
+    static Map<String, String> credentials(Session session) {
+        return Map.of("username", session.username, "password", session.password);
+    }
+    
+    private HttpResponse<String> send(String method, String path, String token, Object body)
+            throws IOException, InterruptedException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(timeout)
+                .header("Accept", "application/json");
+        if (token != null) {
+            request.header("Authorization", "Bearer " + token);
+        }
+        if (body != null) {
+            request.header("Content-Type", "application/json");
+            request.method(method, HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)));
+        } else {
+            request.method(method, HttpRequest.BodyPublishers.noBody());
+        }
+        return http.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+}
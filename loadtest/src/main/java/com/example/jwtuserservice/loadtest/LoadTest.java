@@ -0,0 +1,338 @@
+package com.example.jwtuserservice.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.File;
+import java.net.URLEncoder;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Closed-loop HTTP load generator. Each worker thread repeatedly picks an operation from a weighted mix, issues it
+ * against a running service and records its latency; requests started during the warmup are discarded and the
+ * measured phase reports throughput and latency percentiles per operation.
+ *
+ * <p>Options ({@code --name=value}):
+ * <ul>
+ *     <li>{@code base-url} - service to test (default {@code http://localhost:8080})</li>
+ *     <li>{@code threads} - concurrent workers, i.e. open connections (default 64); a list such as
+ *     {@code 64,256,1024} runs one warmup and measured phase per level</li>
+ *     <li>{@code think-ms} - pause after each request, so high worker counts model many mostly idle clients (default 0)</li>
+ *     <li>{@code warmup}, {@code duration} - seconds (default 10 and 60)</li>
+ *     <li>{@code accounts} - load-test accounts to sign up and rotate through (default 20)</li>
+ *     <li>{@code mix} - weights, e.g. {@code get=30,search=25,list=15,signin=5}; unlisted operations keep their
+ *     defaults, weight 0 disables one</li>
+ *     <li>{@code page-size} - limit for list requests (default 100)</li>
+ *     <li>{@code timeout-ms} - per-request timeout (default 10000)</li>
+ *     <li>{@code out} - also write the report as JSON to this file (an array with one entry per level when sweeping)</li>
+ * </ul>
+ */
+public class LoadTest {
+    
+    private static final String[] SEARCH_TERMS = {
+            "jo", "ja", "mi", "sa", "da", "em", "smith", "john", "garcia", "wil", "mar", "jose", "zoe",
+            "john smi", "jane jo", "emma wil", "lee", "tho", "rob", "zzz"
+    };
+    
+    private final ApiClient client;
+    private final int[] threadLevels;
+    private final long thinkMillis;
+    private final Duration warmup;
+    private final Duration duration;
+    private final int accounts;
+    private final int pageSize;
+    private final Map<Operation, Integer> weights;
+    private final String out;
+    
+    // Replaced, never reset, when a phase starts; workers record into the map that was current when a request began,
+    // so requests that straddle the end of the warmup are not counted as measured
+    private volatile Map<Operation, OperationStats> stats = newStats();
+    private final List<Session> sessions = new ArrayList<>();
+    private final ConcurrentLinkedQueue<Long> createdIds = new ConcurrentLinkedQueue<>();
+    private final List<Map<String, Object>> results = new ArrayList<>();
+    private Operation[] schedule;
+    private long maxUserId;
+    private int threads;
+    
+    private volatile boolean running = true;
+    
+    LoadTest(Map<String, String> options) {
+        this.client = new ApiClient(options.getOrDefault("base-url", "http://localhost:8080"),
+                Duration.ofMillis(Long.parseLong(options.getOrDefault("timeout-ms", "10000"))));
+        this.threadLevels = Arrays.stream(options.getOrDefault("threads", "64").split(","))
+                .mapToInt(level -> Integer.parseInt(level.trim()))
+                .toArray();
+        this.thinkMillis = Long.parseLong(options.getOrDefault("think-ms", "0"));
+        this.warmup = Duration.ofSeconds(Long.parseLong(options.getOrDefault("warmup", "10")));
+        this.duration = Duration.ofSeconds(Long.parseLong(options.getOrDefault("duration", "60")));
+        this.accounts = Integer.parseInt(options.getOrDefault("accounts", "20"));
+        this.pageSize = Integer.parseInt(options.getOrDefault("page-size", "100"));
+        this.weights = parseMix(options.getOrDefault("mix", ""));
+        this.out = options.get("out");
+    }
+    
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value, got: " + arg);
+            }
+            int eq = arg.indexOf('=');
+            options.put(arg.substring(2, eq), arg.substring(eq + 1));
+        }
+        new LoadTest(options).run();
+    }
+    
+    void run() throws Exception {
+        setUp();
+        for (int level : threadLevels) {
+            threads = level;
+            runLevel();
+        }
+        if (out != null) {
+            Object report = results.size() == 1 ? results.get(0) : results;
+            new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(new File(out), report);
+            System.out.println("Report written to " + out);
+        }
+    }
+    
+    private void runLevel() throws Exception {
+        System.out.printf("%nRunning %d threads: %d s warmup, %d s measured, %d ms think time, mix %s%n",
+                threads, warmup.toSeconds(), duration.toSeconds(), thinkMillis, weights);
+        running = true;
+        stats = newStats();
+        
+        CountDownLatch done = new CountDownLatch(threads);
+        for (int i = 0; i < threads; i++) {
+            Thread worker = new Thread(() -> {
+                try {
+                    work();
+                } finally {
+                    done.countDown();
+                }
+            }, "load-worker-" + i);
+            worker.setDaemon(true);
+            worker.start();
+        }
+        
+        Thread.sleep(warmup.toMillis());
+        Map<Operation, OperationStats> measured = newStats();
+        stats = measured;
+        long measuredFrom = System.nanoTime();
+        Thread.sleep(duration.toMillis());
+        running = false;
+        double measuredSeconds = (System.nanoTime() - measuredFrom) / 1e9;
+        done.await();
+        
+        report(measured, measuredSeconds);
+    }
+    
+    private static Map<Operation, OperationStats> newStats() {
+        Map<Operation, OperationStats> phase = new EnumMap<>(Operation.class);
+        for (Operation operation : Operation.values()) {
+            phase.put(operation, new OperationStats());
+        }
+        return phase;
+    }
+    
+    private void setUp() throws Exception {
+        String runId = Long.toString(System.currentTimeMillis(), 36);
+        for (int i = 0; i < accounts; i++) {
+            Session session = new Session("loadtest-" + runId + "-" + i, "loadtest-password-" + i);
+            client.register(session);
+            sessions.add(session);
+        }
+        
+        // Seeded ids are contiguous, so a fresh user's id bounds the range for random reads
+        HttpResponse<String> created = client.post("/api/users", sessions.get(0).accessToken, newUser(0));
+        Long id = created.statusCode() == 201 ? client.readId(created) : null;
+        if (id == null) {
+            throw new IllegalStateException("Could not create a user: HTTP " + created.statusCode());
+        }
+        maxUserId = id;
+        createdIds.add(id);
+        
+        List<Operation> slots = new ArrayList<>();
+        weights.forEach((operation, weight) -> {
+            for (int i = 0; i < weight; i++) {
+                slots.add(operation);
+            }
+        });
+        if (slots.isEmpty()) {
+            throw new IllegalArgumentException("The operation mix is empty");
+        }
+        schedule = slots.toArray(new Operation[0]);
+        System.out.printf("Signed up %d accounts; user ids up to %d%n", accounts, maxUserId);
+    }
+    
+    private void work() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (running) {
+            Operation operation = schedule[random.nextInt(schedule.length)];
+            Session session = sessions.get(random.nextInt(sessions.size()));
+            Map<Operation, OperationStats> phase = stats;
+            long start = System.nanoTime();
+            Boolean ok;
+            try {
+                ok = execute(operation, session, random);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                ok = false;
+            }
+            if (ok != null) {
+                phase.get(operation).record(System.nanoTime() - start, ok);
+            }
+            if (thinkMillis > 0) {
+                try {
+                    Thread.sleep(thinkMillis);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+    
+    /**
+     * @return whether the request succeeded, or {@code null} if there was nothing to do (no user to update or delete)
+     */
+    private Boolean execute(Operation operation, Session session, ThreadLocalRandom random) throws Exception {
+        HttpResponse<String> response;
+        switch (operation) {
+            case SIGNIN:
+                response = client.post("/api/auth/signin", null, ApiClient.credentials(session));
+                return client.storeTokens(session, response);
+            case REFRESH:
+                response = client.post("/api/auth/refresh", session.refreshToken, null);
+                return client.storeTokens(session, response);
+            case LIST:
+                response = client.get("/api/users?after=" + random.nextLong(maxUserId) + "&limit=" + pageSize,
+                        session.accessToken);
+                return isSuccess(response, session);
+            case GET:
+                response = client.get("/api/users/" + random.nextLong(1, maxUserId + 1), session.accessToken);
+                return response.statusCode() == 404 || isSuccess(response, session);
+            case SEARCH:
+                String term = SEARCH_TERMS[random.nextInt(SEARCH_TERMS.length)];
+                response = client.get("/api/users/search?limit=20&q=" + URLEncoder.encode(term, StandardCharsets.UTF_8),
+                        session.accessToken);
+                return isSuccess(response, session);
+            case CREATE:
+                response = client.post("/api/users", session.accessToken, newUser(random.nextInt(1_000_000)));
+                if (response.statusCode() == 201) {
+                    createdIds.add(client.readId(response));
+                }
+                return isSuccess(response, session);
+            case UPDATE:
+                Long updateId = createdIds.poll();
+                if (updateId == null) {
+                    return null;
+                }
+                response = client.put("/api/users/" + updateId, session.accessToken, newUser(random.nextInt(1_000_000)));
+                createdIds.add(updateId);
+                return response.statusCode() == 404 || isSuccess(response, session);
+            case DELETE:
+                // Only deletes users this run created, and keeps a few around for updates
+                Long deleteId = createdIds.size() > threads ? createdIds.poll() : null;
+                if (deleteId == null) {
+                    return null;
+                }
+                response = client.delete("/api/users/" + deleteId, session.accessToken);
+                return response.statusCode() == 404 || isSuccess(response, session);
+            default:
+                throw new IllegalStateException("Unknown operation " + operation);
+        }
+    }
+    
+    // A 401 means the access token expired during a long run; sign in again so later requests succeed
+    private boolean isSuccess(HttpResponse<String> response, Session session) throws Exception {
+        if (response.statusCode() == 401) {
+            client.storeTokens(session, client.post("/api/auth/signin", null, ApiClient.credentials(session)));
+        }
+        return response.statusCode() / 100 == 2 || response.statusCode() == 304;
+    }
+    
+    private static Map<String, Object> newUser(int n) {
+        Map<String, Object> user = new HashMap<>();
+        user.put("firstName", "Load" + n);
+        user.put("lastName", "Test" + n);
+        user.put("age", 20 + n % 50);
+        user.put("birthday", "1990-01-01");
+        return user;
+    }
+    
+    private void report(Map<Operation, OperationStats> stats, double measuredSeconds) throws Exception {
+        Map<String, Object> operations = new LinkedHashMap<>();
+        long totalCount = 0;
+        long totalErrors = 0;
+        
+        System.out.printf("%n%-8s %10s %10s %8s %9s %9s %9s %9s %9s %9s%n",
+                "op", "requests", "req/s", "errors", "mean ms", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        for (Map.Entry<Operation, OperationStats> entry : stats.entrySet()) {
+            OperationStats s = entry.getValue();
+            if (s.count() == 0) {
+                continue;
+            }
+            totalCount += s.count();
+            totalErrors += s.errors();
+            System.out.printf("%-8s %10d %10.1f %8d %9.2f %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                    entry.getKey().label(), s.count(), s.count() / measuredSeconds, s.errors(), s.meanMillis(),
+                    s.percentileMillis(50), s.percentileMillis(90), s.percentileMillis(99),
+                    s.percentileMillis(99.9), s.maxMillis());
+            
+            Map<String, Object> summary = new LinkedHashMap<>();
+            summary.put("requests", s.count());
+            summary.put("throughput", s.count() / measuredSeconds);
+            summary.put("errors", s.errors());
+            summary.put("meanMs", s.meanMillis());
+            summary.put("p50Ms", s.percentileMillis(50));
+            summary.put("p90Ms", s.percentileMillis(90));
+            summary.put("p99Ms", s.percentileMillis(99));
+            summary.put("p999Ms", s.percentileMillis(99.9));
+            summary.put("maxMs", s.maxMillis());
+            operations.put(entry.getKey().label(), summary);
+        }
+        System.out.printf("%-8s %10d %10.1f %8d%n", "total", totalCount, totalCount / measuredSeconds, totalErrors);
+        
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("threads", threads);
+        result.put("thinkMs", thinkMillis);
+        result.put("durationSeconds", measuredSeconds);
+        result.put("mix", weights);
+        result.put("totalRequests", totalCount);
+        result.put("throughput", totalCount / measuredSeconds);
+        result.put("errors", totalErrors);
+        result.put("operations", operations);
+        results.add(result);
+    }
+    
+    private static Map<Operation, Integer> parseMix(String mix) {
+        Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+        for (Operation operation : Operation.values()) {
+            weights.put(operation, operation.getDefaultWeight());
+        }
+        for (String part : mix.split(",")) {
+            if (part.isBlank()) {
+                continue;
+            }
+            String[] pair = part.split("=");
+            weights.put(Operation.valueOf(pair[0].trim().toUpperCase()), Integer.parseInt(pair[1].trim()));
+        }
+        weights.values().removeIf(weight -> weight <= 0);
+        return weights;
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.jwtuserservice.loadtest;
+
+/**
+ * Operations the load generator can issue, with their default share of the mix.
+ */
+enum Operation {
+    
+    SIGNIN(5),
+    REFRESH(5),
+    LIST(15),
+    GET(30),
+    SEARCH(25),
+    CREATE(8),
+    UPDATE(8),
+    DELETE(4);
+    
+    private final int defaultWeight;
+    
+    Operation(int defaultWeight) {
+        this.defaultWeight = defaultWeight;
+    }
+    
+    int getDefaultWeight() {
+        return defaultWeight;
+    }
+    
+    String label() {
+        return name().toLowerCase();
+    }
+}
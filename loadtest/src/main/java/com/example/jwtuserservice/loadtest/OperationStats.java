@@ -0,0 +1,45 @@
+package com.example.jwtuserservice.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency histogram (microseconds, 3 significant digits) and outcome counts for one operation.
+ */
+class OperationStats {
+    
+    private static final long MAX_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(1);
+    
+    private final Histogram latency = new ConcurrentHistogram(MAX_TRACKABLE_MICROS, 3);
+    private final LongAdder errors = new LongAdder();
+    
+    void record(long nanos, boolean ok) {
+        latency.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(nanos), MAX_TRACKABLE_MICROS));
+        if (!ok) {
+            errors.increment();
+        }
+    }
+    
+    long count() {
+        return latency.getTotalCount();
+    }
+    
+    long errors() {
+        return errors.sum();
+    }
+    
+    double percentileMillis(double percentile) {
+        return latency.getValueAtPercentile(percentile) / 1000.0;
+    }
+    
+    double maxMillis() {
+        return latency.getMaxValue() / 1000.0;
+    }
+    
+    double meanMillis() {
+        return latency.getMean() / 1000.0;
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.jwtuserservice.loadtest;
+
+/**
+ * A signed-up load-test account and its current tokens. Tokens are replaced by refresh and sign-in operations, so
+ * they are volatile; a lost update only means one request uses a slightly older, still valid token.
+ */
+class Session {
+    
+    final String username;
+    final String password;
+    
+    volatile String accessToken;
+    volatile String refreshToken;
+    
+    Session(String username, String password) {
+        this.username = username;
+        this.password = password;
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.jwtuserservice.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+
+/**
+ * Bounds concurrent database access with a {@link ConcurrencyLimitingDataSource} around the application's
+ * {@code dataSource} bean, enabled with {@code datasource.concurrency-limit.enabled=true} (the {@code virtual-threads}
+ * profile turns it on). The permit count defaults to the primary pool size.
+ */
+@Configuration
+@ConditionalOnProperty(name = "datasource.concurrency-limit.enabled", havingValue = "true")
+public class DataSourceConcurrencyConfig {
+    
+    private static final Logger logger = LoggerFactory.getLogger(DataSourceConcurrencyConfig.class);
+    
+    // Static so the post-processor is registered before the data source is created
+    @Bean
+    public static BeanPostProcessor concurrencyLimitingDataSourcePostProcessor(Environment environment) {
+        int permits = environment.getProperty("datasource.concurrency-limit.permits", Integer.class,
+                environment.getProperty("spring.datasource.hikari.maximum-pool-size", Integer.class, 10));
+        long timeoutMillis = environment.getProperty("datasource.concurrency-limit.timeout-ms", Long.class, 30000L);
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!"dataSource".equals(beanName) || !(bean instanceof DataSource)
+                        || bean instanceof ConcurrencyLimitingDataSource) {
+                    return bean;
+                }
+                logger.info("Limiting concurrent database access to {} connections (timeout {} ms)",
+                        permits, timeoutMillis);
+                return new ConcurrencyLimitingDataSource((DataSource) bean, permits, timeoutMillis);
+            }
+        };
+    }
+    
+    @Bean
+    public MeterBinder dataSourceConcurrencyMetrics(ObjectProvider<DataSource> dataSource) {
+        return registry -> {
+            DataSource target = dataSource.getIfAvailable();
+            if (!(target instanceof ConcurrencyLimitingDataSource)) {
+                return;
+            }
+            ConcurrencyLimitingDataSource limited = (ConcurrencyLimitingDataSource) target;
+            Gauge.builder("datasource.permits.available", limited, ConcurrencyLimitingDataSource::getAvailablePermits)
+                    .register(registry);
+            Gauge.builder("datasource.permits.waiting", limited, ConcurrencyLimitingDataSource::getWaitingCount)
+                    .register(registry);
+        };
+    }
+}
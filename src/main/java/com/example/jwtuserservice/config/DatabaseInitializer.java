@@ -66,7 +66,6 @@ public class DatabaseInitializer implements CommandLineRunner {
                 
                 // Create login credentials
                 String encodedPassword = passwordEncoder.encode("password123");
-                logger.info("Encoded password for all users: {}", encodedPassword);
                 
                 Login login1 = new Login();
                 login1.setUsername("john.doe");
@@ -100,7 +99,6 @@ public class DatabaseInitializer implements CommandLineRunner {
                 if (johnExists) {
                     Login johnLogin = loginRepository.findByUsername("john.doe").orElse(null);
                     if (johnLogin != null) {
-                        logger.info("John's password hash: {}", johnLogin.getPassword());
                         boolean passwordMatches = passwordEncoder.matches("password123", johnLogin.getPassword());
                         logger.info("Password 'password123' matches: {}", passwordMatches);
                     }
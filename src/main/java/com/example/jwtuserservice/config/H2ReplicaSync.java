@@ -0,0 +1,103 @@
+package com.example.jwtuserservice.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Local stand-in for replication between two embedded H2 databases: every interval the primary is dumped with
+ * {@code SCRIPT} and replayed into each replica. Only meant for the {@code local} profile; the copy is a full dump,
+ * so replicas lag by up to one interval. A replica is taken out of rotation while it is reloaded, so reads go to
+ * the primary instead of seeing a half-empty database.
+ */
+public class H2ReplicaSync {
+    
+    private static final Logger logger = LoggerFactory.getLogger(H2ReplicaSync.class);
+    
+    private static final long DRAIN_TIMEOUT_MS = 5000;
+    
+    private final ReplicaRoutingDataSource routingDataSource;
+    private final long intervalMs;
+    
+    private ScheduledExecutorService scheduler;
+    
+    public H2ReplicaSync(ReplicaRoutingDataSource routingDataSource, long intervalMs) {
+        this.routingDataSource = routingDataSource;
+        this.intervalMs = intervalMs;
+    }
+    
+    public void start() {
+        sync();
+        scheduler = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("h2-replica-sync-"));
+        scheduler.scheduleWithFixedDelay(this::sync, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+        logger.info("Copying the H2 primary to {} replicas every {} ms",
+                routingDataSource.getReplicas().size(), intervalMs);
+    }
+    
+    public void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+    
+    void sync() {
+        try {
+            List<String> script = dumpPrimary();
+            List<DataSource> replicas = routingDataSource.getReplicas();
+            for (int i = 0; i < replicas.size(); i++) {
+                routingDataSource.suspendReplica(i);
+                try {
+                    awaitIdle(replicas.get(i));
+                    try (Connection connection = replicas.get(i).getConnection();
+                         Statement statement = connection.createStatement()) {
+                        statement.execute("DROP ALL OBJECTS");
+                        for (String sql : script) {
+                            statement.execute(sql);
+                        }
+                    }
+                } finally {
+                    routingDataSource.resumeReplica(i);
+                }
+            }
+            logger.debug("Replayed {} statements into H2 replicas", script.size());
+        } catch (Exception e) {
+            logger.warn("H2 replica sync failed: {}", e.getMessage());
+        }
+    }
+    
+    // Lets reads that were routed to the replica before it was suspended finish before its tables are dropped
+    private static void awaitIdle(DataSource replica) throws InterruptedException {
+        if (!(replica instanceof HikariDataSource hikari) || hikari.getHikariPoolMXBean() == null) {
+            return;
+        }
+        HikariPoolMXBean pool = hikari.getHikariPoolMXBean();
+        long deadline = System.currentTimeMillis() + DRAIN_TIMEOUT_MS;
+        while (pool.getActiveConnections() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+    
+    private List<String> dumpPrimary() throws Exception {
+        List<String> script = new ArrayList<>();
+        try (Connection connection = routingDataSource.getPrimary().getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SCRIPT NOPASSWORDS NOSETTINGS")) {
+            while (resultSet.next()) {
+                script.add(resultSet.getString(1));
+            }
+        }
+        return script;
+    }
+}
@@ -1,39 +0,0 @@
-package com.example.jwtuserservice.config;
-
-import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.context.annotation.Bean;
-import org.springframework.context.annotation.Configuration;
-import org.springframework.core.annotation.Order;
-import org.springframework.security.config.annotation.web.builders.HttpSecurity;
-import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
-import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.web.SecurityFilterChain;
-import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
-
-// Temporarily disabled JWT security to fix authentication
-/*
-@Configuration
-@EnableWebSecurity
-@Order(2)
-public class JwtSecurityConfig {
-    
-    // JWT filter removed
-    
-    @Bean
-    public SecurityFilterChain jwtFilterChain(HttpSecurity http) throws Exception {
-        http
-            .securityMatcher("/api/users/**") // Only apply to protected endpoints
-            .cors().and()
-            .csrf().disable()
-            .authorizeHttpRequests(authz -> authz
-                .anyRequest().authenticated()
-            )
-            .sessionManagement()
-            .sessionCreationPolicy(SessionCreationPolicy.STATELESS)
-            .and();
-            // JWT filter removed
-        
-        return http.build();
-    }
-}
-*/ 
\ No newline at end of file
@@ -0,0 +1,56 @@
+package com.example.jwtuserservice.config;
+
+import com.example.jwtuserservice.security.CachedUserDetailsService;
+import com.example.jwtuserservice.security.PasswordHashingExecutor;
+import com.example.jwtuserservice.security.VerifiedTokenCache;
+import com.example.jwtuserservice.service.CaffeineUserCache;
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Application metrics beyond what Spring Boot instruments on its own (HTTP endpoints, repository invocations,
+ * connection pools): {@code @Timed} service methods, the in-process caches and the password hashing pool (its queue
+ * wait timer, {@code auth.hashing.wait}, is registered by {@link PasswordHashingExecutor} itself).
+ */
+@Configuration
+public class MetricsConfig {
+    
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry registry) {
+        return new TimedAspect(registry);
+    }
+    
+    @Bean
+    public MeterBinder cacheMetrics(VerifiedTokenCache verifiedTokenCache,
+                                    CachedUserDetailsService userDetailsService,
+                                    ObjectProvider<CaffeineUserCache> userCache) {
+        return registry -> {
+            CaffeineCacheMetrics.monitor(registry, verifiedTokenCache.getNativeCache(), "jwt.verified-tokens");
+            CaffeineCacheMetrics.monitor(registry, userDetailsService.getNativeCache(), "auth.user-details");
+            userCache.ifAvailable(cache -> CaffeineCacheMetrics.monitor(registry, cache.getNativeCache(), "users"));
+        };
+    }
+    
+    @Bean
+    public MeterBinder passwordHashingMetrics(PasswordHashingExecutor executor) {
+        return registry -> {
+            Gauge.builder("auth.hashing.queue.depth", executor, PasswordHashingExecutor::getQueueDepth)
+                    .register(registry);
+            Gauge.builder("auth.hashing.queue.capacity", executor, PasswordHashingExecutor::getQueueCapacity)
+                    .register(registry);
+            Gauge.builder("auth.hashing.active", executor, PasswordHashingExecutor::getActiveCount)
+                    .register(registry);
+            FunctionCounter.builder("auth.hashing.completed", executor, PasswordHashingExecutor::getCompletedCount)
+                    .register(registry);
+            FunctionCounter.builder("auth.hashing.rejected", executor, PasswordHashingExecutor::getRejectedCount)
+                    .register(registry);
+        };
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.jwtuserservice.config;
+
+import com.example.jwtuserservice.entity.User;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Fills {@code first_name_norm} / {@code last_name_norm} for rows that don't have them yet, e.g. after
+ * {@code db/migration-user-name-norm.sql}. The values come from {@link User#normalizeName}, which SQL cannot
+ * reproduce because it strips accents. Rows are walked in id order with plain JDBC batches, one transaction each.
+ */
+@Component
+// After UserSeeder, which writes the normalized names itself, and before anything searches
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+public class NormalizedNameBackfill implements CommandLineRunner {
+    
+    private static final Logger logger = LoggerFactory.getLogger(NormalizedNameBackfill.class);
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Value("${users.norm-backfill.batch-size:1000}")
+    private int batchSize;
+    
+    @Override
+    public void run(String... args) {
+        long filled = backfill();
+        if (filled > 0) {
+            logger.info("Backfilled normalized names for {} users", filled);
+        }
+    }
+    
+    long backfill() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        long afterId = 0;
+        long filled = 0;
+        while (true) {
+            long cursor = afterId;
+            List<Object[]> rows = transaction.execute(status -> {
+                List<Object[]> batch = jdbcTemplate.query(
+                        "SELECT id, first_name, last_name FROM users " +
+                        "WHERE (first_name_norm IS NULL OR last_name_norm IS NULL) AND id > ? ORDER BY id LIMIT ?",
+                        (rs, rowNum) -> new Object[]{
+                                User.normalizeName(rs.getString("first_name")),
+                                User.normalizeName(rs.getString("last_name")),
+                                rs.getLong("id")},
+                        cursor, batchSize);
+                if (!batch.isEmpty()) {
+                    jdbcTemplate.batchUpdate(
+                            "UPDATE users SET first_name_norm = ?, last_name_norm = ? WHERE id = ?", batch);
+                }
+                return batch;
+            });
+            if (rows == null || rows.isEmpty()) {
+                return filled;
+            }
+            filled += rows.size();
+            afterId = (Long) rows.get(rows.size() - 1)[2];
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.jwtuserservice.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Read/write split, enabled with {@code datasource.replica.enabled=true}. Read-only transactions (user listing,
+ * search and streaming) go to the replicas in {@code datasource.replica.urls}; writes, credential lookups and
+ * non-transactional work stay on the primary configured by {@code spring.datasource.*}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "datasource.replica.enabled", havingValue = "true")
+public class ReplicaDataSourceConfig {
+    
+    @Value("${datasource.replica.urls}")
+    private List<String> replicaUrls;
+    
+    @Value("${datasource.replica.username:${spring.datasource.username:}}")
+    private String replicaUsername;
+    
+    @Value("${datasource.replica.password:${spring.datasource.password:}}")
+    private String replicaPassword;
+    
+    @Value("${datasource.replica.pool-size:10}")
+    private int replicaPoolSize;
+    
+    @Value("${spring.datasource.hikari.maximum-pool-size:10}")
+    private int primaryPoolSize;
+    
+    @Value("${datasource.replica.fallback-to-primary:true}")
+    private boolean fallbackToPrimary;
+    
+    @Bean
+    public ReplicaRoutingDataSource routingDataSource(DataSourceProperties properties) {
+        HikariDataSource primary = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        primary.setPoolName("primary");
+        primary.setMaximumPoolSize(primaryPoolSize);
+        
+        List<DataSource> replicas = new ArrayList<>();
+        for (int i = 0; i < replicaUrls.size(); i++) {
+            HikariDataSource replica = new HikariDataSource();
+            replica.setPoolName("replica-" + i);
+            replica.setJdbcUrl(replicaUrls.get(i).trim());
+            replica.setUsername(replicaUsername);
+            replica.setPassword(replicaPassword);
+            replica.setDriverClassName(properties.determineDriverClassName());
+            replica.setMaximumPoolSize(replicaPoolSize);
+            replica.setReadOnly(true);
+            replicas.add(replica);
+        }
+        return new ReplicaRoutingDataSource(primary, replicas, fallbackToPrimary);
+    }
+    
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource routingDataSource) {
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+    
+    @Bean(initMethod = "start", destroyMethod = "stop")
+    public ReplicaLagMonitor replicaLagMonitor(ReplicaRoutingDataSource routingDataSource,
+                                               @Value("${datasource.replica.lag-probe:mysql}") String probe,
+                                               @Value("${datasource.replica.max-lag-seconds:5}") long maxLagSeconds,
+                                               @Value("${datasource.replica.probe-interval-ms:1000}") long intervalMs) {
+        return new ReplicaLagMonitor(routingDataSource, probe, maxLagSeconds, intervalMs);
+    }
+    
+    // Depends on the EntityManagerFactory so the first copy runs after Hibernate has created the schema
+    @Bean(initMethod = "start", destroyMethod = "stop")
+    @ConditionalOnProperty(name = "datasource.replica.local-sync-interval-ms")
+    public H2ReplicaSync h2ReplicaSync(ReplicaRoutingDataSource routingDataSource,
+                                       EntityManagerFactory entityManagerFactory,
+                                       @Value("${datasource.replica.local-sync-interval-ms}") long intervalMs) {
+        return new H2ReplicaSync(routingDataSource, intervalMs);
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.jwtuserservice.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Periodically checks every replica and tells the {@link ReplicaRoutingDataSource} which ones may serve reads.
+ * A replica is taken out of rotation when it is unreachable, when replication is stopped, or when it is more than
+ * the configured number of seconds behind the primary.
+ *
+ * <p>Probes: {@code mysql} reads {@code Seconds_Behind_Source} from {@code SHOW REPLICA STATUS} (needs the
+ * {@code REPLICATION CLIENT} privilege; a server that is not a replica counts as zero lag); {@code none} only checks
+ * that a connection can be obtained.
+ */
+public class ReplicaLagMonitor {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+    
+    private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+    
+    private final ReplicaRoutingDataSource routingDataSource;
+    private final String probe;
+    private final long maxLagSeconds;
+    private final long intervalMs;
+    
+    private ScheduledExecutorService scheduler;
+    
+    public ReplicaLagMonitor(ReplicaRoutingDataSource routingDataSource, String probe, long maxLagSeconds,
+                             long intervalMs) {
+        this.routingDataSource = routingDataSource;
+        this.probe = probe;
+        this.maxLagSeconds = maxLagSeconds;
+        this.intervalMs = intervalMs;
+    }
+    
+    public void start() {
+        checkReplicas();
+        scheduler = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("replica-lag-monitor-"));
+        scheduler.scheduleWithFixedDelay(this::checkReplicas, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+        logger.info("Replica lag monitor started for {} replicas (probe: {}, max lag: {}s)",
+                routingDataSource.getReplicas().size(), probe, maxLagSeconds);
+    }
+    
+    public void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+    
+    void checkReplicas() {
+        try {
+            List<DataSource> replicas = routingDataSource.getReplicas();
+            List<Integer> previous = routingDataSource.getHealthyReplicas();
+            List<Integer> healthy = new ArrayList<>();
+            for (int i = 0; i < replicas.size(); i++) {
+                boolean ok = isHealthy(i, replicas.get(i));
+                if (ok) {
+                    healthy.add(i);
+                }
+                if (ok && !previous.contains(i)) {
+                    logger.info("Replica {} back in rotation", i);
+                } else if (!ok && previous.contains(i)) {
+                    logger.warn("Replica {} taken out of rotation", i);
+                }
+            }
+            if (healthy.isEmpty() && !previous.isEmpty()) {
+                logger.warn("No healthy replicas; read-only transactions fall back as configured");
+            }
+            routingDataSource.setHealthyReplicas(healthy);
+        } catch (RuntimeException e) {
+            logger.error("Replica health check failed", e);
+        }
+    }
+    
+    private boolean isHealthy(int index, DataSource replica) {
+        try (Connection connection = replica.getConnection()) {
+            if (!connection.isValid(VALIDATION_TIMEOUT_SECONDS)) {
+                return false;
+            }
+            if (!"mysql".equals(probe)) {
+                return true;
+            }
+            Long lag = readMySqlLag(connection);
+            if (lag == null) {
+                logger.debug("Replica {} is not replicating", index);
+                return false;
+            }
+            logger.debug("Replica {} lag: {}s", index, lag);
+            return lag <= maxLagSeconds;
+        } catch (Exception e) {
+            logger.debug("Replica {} unreachable: {}", index, e.getMessage());
+            return false;
+        }
+    }
+    
+    // Seconds behind the source; 0 for a server that is not a replica, null while replication is stopped
+    private static Long readMySqlLag(Connection connection) throws Exception {
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SHOW REPLICA STATUS")) {
+            if (!resultSet.next()) {
+                return 0L;
+            }
+            long lag = resultSet.getLong("Seconds_Behind_Source");
+            return resultSet.wasNull() ? null : lag;
+        }
+    }
+}
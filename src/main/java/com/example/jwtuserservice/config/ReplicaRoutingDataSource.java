@@ -0,0 +1,112 @@
+package com.example.jwtuserservice.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends connections requested inside a read-only transaction to a healthy replica (round robin) and everything else
+ * to the primary. Must be wrapped in a {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy} so
+ * the connection is only fetched after the transaction's read-only flag has been set.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+    
+    static final String PRIMARY = "primary";
+    
+    private final DataSource primary;
+    private final List<DataSource> replicas;
+    private final boolean fallbackToPrimary;
+    
+    private final AtomicInteger next = new AtomicInteger();
+    
+    // Replaced wholesale by ReplicaLagMonitor; every replica counts as healthy until the first probe
+    private volatile List<Integer> healthyReplicas;
+    
+    // Replicas that are deliberately out of rotation (e.g. being reloaded), independent of the health checks
+    private final Set<Integer> suspendedReplicas = ConcurrentHashMap.newKeySet();
+    
+    public ReplicaRoutingDataSource(DataSource primary, List<DataSource> replicas, boolean fallbackToPrimary) {
+        this.primary = primary;
+        this.replicas = List.copyOf(replicas);
+        this.fallbackToPrimary = fallbackToPrimary;
+        
+        List<Integer> all = new ArrayList<>();
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        for (int i = 0; i < replicas.size(); i++) {
+            targets.put(i, replicas.get(i));
+            all.add(i);
+        }
+        this.healthyReplicas = List.copyOf(all);
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+    }
+    
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly() || replicas.isEmpty()) {
+            return PRIMARY;
+        }
+        List<Integer> candidates = healthyReplicas;
+        if (!suspendedReplicas.isEmpty()) {
+            candidates = candidates.stream().filter(i -> !suspendedReplicas.contains(i)).toList();
+        }
+        if (candidates.isEmpty()) {
+            if (fallbackToPrimary || !suspendedReplicas.isEmpty()) {
+                return PRIMARY;
+            }
+            // No fallback configured: keep using the replicas and let failures surface
+            return Math.floorMod(next.getAndIncrement(), replicas.size());
+        }
+        return candidates.get(Math.floorMod(next.getAndIncrement(), candidates.size()));
+    }
+    
+    public DataSource getPrimary() {
+        return primary;
+    }
+    
+    public List<DataSource> getReplicas() {
+        return replicas;
+    }
+    
+    public List<Integer> getHealthyReplicas() {
+        return healthyReplicas;
+    }
+    
+    /**
+     * Closes the underlying pools; called by the container on shutdown.
+     */
+    public void close() throws Exception {
+        for (DataSource dataSource : replicas) {
+            closeIfPossible(dataSource);
+        }
+        closeIfPossible(primary);
+    }
+    
+    void setHealthyReplicas(List<Integer> healthyReplicas) {
+        this.healthyReplicas = List.copyOf(healthyReplicas);
+    }
+    
+    void suspendReplica(int index) {
+        suspendedReplicas.add(index);
+    }
+    
+    void resumeReplica(int index) {
+        suspendedReplicas.remove(index);
+    }
+    
+    private static void closeIfPossible(DataSource dataSource) throws Exception {
+        if (dataSource instanceof AutoCloseable closeable) {
+            closeable.close();
+        }
+    }
+}
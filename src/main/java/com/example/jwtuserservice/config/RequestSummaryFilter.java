@@ -0,0 +1,62 @@
+package com.example.jwtuserservice.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Writes one key=value summary line per request in place of per-step INFO logging. Only a sample of requests is
+ * logged ({@code request-log.sample-rate}); server errors and requests slower than {@code request-log.slow-ms} are
+ * always logged. Uses its own logger, {@code request.summary}, so it can be routed or silenced separately.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@ConditionalOnProperty(name = "request-log.enabled", havingValue = "true", matchIfMissing = true)
+public class RequestSummaryFilter extends OncePerRequestFilter {
+    
+    private static final Logger logger = LoggerFactory.getLogger("request.summary");
+    
+    @Value("${request-log.sample-rate:1.0}")
+    private double sampleRate;
+    
+    @Value("${request-log.slow-ms:500}")
+    private long slowMs;
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        if (!logger.isInfoEnabled()) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        
+        long start = System.nanoTime();
+        // An exception escaping the chain is turned into a 500 by the container after this filter has returned,
+        // unless a status was already sent
+        boolean failed = true;
+        try {
+            filterChain.doFilter(request, response);
+            failed = false;
+        } finally {
+            long durationMs = (System.nanoTime() - start) / 1_000_000;
+            int status = failed && !response.isCommitted()
+                    ? HttpServletResponse.SC_INTERNAL_SERVER_ERROR : response.getStatus();
+            if (status >= 500 || durationMs >= slowMs || ThreadLocalRandom.current().nextDouble() < sampleRate) {
+                logger.info("method={} path={} status={} durationMs={}",
+                        request.getMethod(), request.getRequestURI(), status, durationMs);
+            }
+        }
+    }
+}
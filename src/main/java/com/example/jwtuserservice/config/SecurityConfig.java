@@ -1,27 +1,128 @@
 package com.example.jwtuserservice.config;
 
+import com.example.jwtuserservice.security.AuthMetrics;
+import com.example.jwtuserservice.security.CachedUserDetailsService;
+import com.example.jwtuserservice.security.CustomUserDetailsService;
+import com.example.jwtuserservice.security.JwtAuthenticationFilter;
+import com.example.jwtuserservice.security.JwtUtil;
+import com.example.jwtuserservice.security.TimedPasswordEncoder;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.ProviderManager;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
+import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.factory.PasswordEncoderFactories;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
+import org.springframework.security.provisioning.InMemoryUserDetailsManager;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.HttpStatusEntryPoint;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
+import java.time.Duration;
 import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
 
 @Configuration
 @EnableWebSecurity
 public class SecurityConfig {
     
+    public static final String METRICS_AUTHORITY = "METRICS";
+    
+    @Autowired
+    private JwtUtil jwtUtil;
+    
+    @Autowired
+    private CustomUserDetailsService customUserDetailsService;
+    
+    @Autowired
+    private AuthMetrics authMetrics;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Value("${auth.user-cache.ttl-seconds:300}")
+    private long userCacheTtlSeconds;
+    
+    @Value("${auth.user-cache.max-size:10000}")
+    private long userCacheMaxSize;
+    
+    // Encoder used for new hashes; stored hashes made with another encoder or weaker settings are re-encoded on login
+    @Value("${auth.password.encoder:bcrypt}")
+    private String passwordEncoderId;
+    
+    @Value("${auth.password.bcrypt.strength:10}")
+    private int bcryptStrength;
+    
+    @Value("${auth.password.argon2.salt-length:16}")
+    private int argon2SaltLength;
+    
+    @Value("${auth.password.argon2.hash-length:32}")
+    private int argon2HashLength;
+    
+    @Value("${auth.password.argon2.parallelism:1}")
+    private int argon2Parallelism;
+    
+    @Value("${auth.password.argon2.memory-kb:16384}")
+    private int argon2MemoryKb;
+    
+    @Value("${auth.password.argon2.iterations:2}")
+    private int argon2Iterations;
+    
+    @Value("${auth.password.pbkdf2.salt-length:16}")
+    private int pbkdf2SaltLength;
+    
+    @Value("${auth.password.pbkdf2.iterations:310000}")
+    private int pbkdf2Iterations;
+    
+    // HTTP Basic account for scraping the actuator; without a password only /actuator/health is reachable
+    @Value("${metrics.scrape.username:prometheus}")
+    private String scrapeUsername;
+    
+    @Value("${metrics.scrape.password:}")
+    private String scrapePassword;
+    
+    /**
+     * Actuator endpoints get their own chain: health stays public for probes and load balancers, everything else
+     * (Prometheus metrics) needs the scrape account, since a JWT expires too quickly to configure in a scraper.
+     */
+    @Bean
+    @Order(1)
+    public SecurityFilterChain actuatorFilterChain(HttpSecurity http) throws Exception {
+        http
+            .securityMatcher("/actuator/**")
+            .csrf(AbstractHttpConfigurer::disable)
+            .authorizeHttpRequests(authz -> authz
+                .requestMatchers("/actuator/health", "/actuator/health/**").permitAll()
+                .anyRequest().hasAuthority(METRICS_AUTHORITY)
+            )
+            .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+            .httpBasic(Customizer.withDefaults())
+            // Not the application's AuthenticationManager: user accounts must not be able to read metrics
+            .authenticationManager(new ProviderManager(scrapeAuthenticationProvider()));
+        
+        return http.build();
+    }
+    
     @Bean
     public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
         http
@@ -29,28 +130,51 @@ public class SecurityConfig {
             .csrf().disable()
             .authorizeHttpRequests(authz -> authz
                 .requestMatchers("/api/auth/**").permitAll()
-                .requestMatchers("/api/users/**").permitAll() // Temporarily allow all for testing
-                .anyRequest().permitAll() // Temporarily allow all for testing
+                .requestMatchers("/api/users/**").authenticated()
+                .anyRequest().permitAll()
             )
             .sessionManagement()
             .sessionCreationPolicy(SessionCreationPolicy.STATELESS)
             .and()
-            .authenticationProvider(authenticationProvider());
+            .exceptionHandling(exceptions -> exceptions
+                .authenticationEntryPoint(new HttpStatusEntryPoint(HttpStatus.UNAUTHORIZED))
+            )
+            .authenticationProvider(authenticationProvider())
+            // Not a @Bean on purpose: a Filter bean would also be registered with the servlet container
+            .addFilterBefore(new JwtAuthenticationFilter(jwtUtil, authMetrics), UsernamePasswordAuthenticationFilter.class);
         
         return http.build();
     }
     
+    // Not a @Bean: a second AuthenticationProvider bean would stop the global AuthenticationManager from using the
+    // application's provider
+    private DaoAuthenticationProvider scrapeAuthenticationProvider() {
+        InMemoryUserDetailsManager scrapeUsers = new InMemoryUserDetailsManager();
+        if (!scrapePassword.isEmpty()) {
+            scrapeUsers.createUser(User.withUsername(scrapeUsername)
+                    .password("{noop}" + scrapePassword)
+                    .authorities(METRICS_AUTHORITY)
+                    .build());
+        }
+        DaoAuthenticationProvider provider = new DaoAuthenticationProvider();
+        provider.setUserDetailsService(scrapeUsers);
+        provider.setPasswordEncoder(PasswordEncoderFactories.createDelegatingPasswordEncoder());
+        return provider;
+    }
+    
     @Bean
     public org.springframework.security.authentication.AuthenticationProvider authenticationProvider() {
-        org.springframework.security.authentication.dao.DaoAuthenticationProvider provider = new org.springframework.security.authentication.dao.DaoAuthenticationProvider();
+        DaoAuthenticationProvider provider = new DaoAuthenticationProvider();
         provider.setUserDetailsService(userDetailsService());
         provider.setPasswordEncoder(passwordEncoder());
+        provider.setUserDetailsPasswordService(userDetailsService());
         return provider;
     }
     
     @Bean
-    public org.springframework.security.core.userdetails.UserDetailsService userDetailsService() {
-        return new com.example.jwtuserservice.security.CustomUserDetailsService();
+    public CachedUserDetailsService userDetailsService() {
+        return new CachedUserDetailsService(customUserDetailsService,
+                Duration.ofSeconds(userCacheTtlSeconds), userCacheMaxSize);
     }
     
     @Bean
@@ -60,7 +184,23 @@ public class SecurityConfig {
     
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(bcryptStrength);
+        
+        Map<String, PasswordEncoder> encoders = new HashMap<>();
+        encoders.put("bcrypt", bcrypt);
+        encoders.put("argon2", new Argon2PasswordEncoder(argon2SaltLength, argon2HashLength,
+                argon2Parallelism, argon2MemoryKb, argon2Iterations));
+        encoders.put("pbkdf2", new Pbkdf2PasswordEncoder("", pbkdf2SaltLength, pbkdf2Iterations,
+                Pbkdf2PasswordEncoder.SecretKeyFactoryAlgorithm.PBKDF2WithHmacSHA256));
+        
+        if (!encoders.containsKey(passwordEncoderId)) {
+            throw new IllegalStateException("Unknown auth.password.encoder: " + passwordEncoderId);
+        }
+        
+        DelegatingPasswordEncoder delegating = new DelegatingPasswordEncoder(passwordEncoderId, encoders);
+        // Hashes stored before the {id} prefix was introduced are plain BCrypt
+        delegating.setDefaultPasswordEncoderForMatches(bcrypt);
+        return new TimedPasswordEncoder(delegating, meterRegistry);
     }
     
     @Bean
@@ -69,6 +209,7 @@ public class SecurityConfig {
         configuration.setAllowedOriginPatterns(Arrays.asList("*"));
         configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "DELETE", "OPTIONS"));
         configuration.setAllowedHeaders(Arrays.asList("*"));
+        configuration.setExposedHeaders(Arrays.asList("ETag", "X-Next-Cursor"));
         configuration.setAllowCredentials(true);
         
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
@@ -0,0 +1,113 @@
+package com.example.jwtuserservice.config;
+
+import com.example.jwtuserservice.entity.User;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Fills the users table up to {@code users.seed.count} rows for load testing. Rows are written with plain JDBC
+ * batches, bypassing JPA, and the id sequence is moved past them so later inserts don't collide. Existing rows count
+ * towards the target, so a file-backed database is only seeded once.
+ */
+@Component
+@ConditionalOnProperty(name = "users.seed.count")
+// Before DatabaseInitializer, so Hibernate has not reserved an id block below the seeded range yet
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class UserSeeder implements CommandLineRunner {
+    
+    private static final Logger logger = LoggerFactory.getLogger(UserSeeder.class);
+    
+    private static final String[] FIRST_NAMES = {
+            "John", "Jane", "Mike", "Sarah", "David", "Emma", "Chris", "Olivia", "Daniel", "Sophia",
+            "James", "Mia", "Robert", "Ava", "William", "Isabella", "Joseph", "Amelia", "Thomas", "Charlotte",
+            "José", "Zoë", "François", "Björn", "Renée"
+    };
+    
+    private static final String[] LAST_NAMES = {
+            "Smith", "Johnson", "Williams", "Brown", "Jones", "Garcia", "Miller", "Davis", "Rodriguez", "Martinez",
+            "Hernandez", "Lopez", "Gonzalez", "Wilson", "Anderson", "Thomas", "Taylor", "Moore", "Jackson", "Martin",
+            "Lee", "Perez", "Thompson", "White", "Harris", "Sanchez", "Clark", "Ramirez", "Lewis", "Robinson"
+    };
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Value("${users.seed.count}")
+    private long targetCount;
+    
+    @Value("${users.seed.batch-size:10000}")
+    private int batchSize;
+    
+    @Override
+    public void run(String... args) {
+        Long existing = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM users", Long.class);
+        long missing = targetCount - (existing != null ? existing : 0);
+        if (missing <= 0) {
+            logger.info("Users table already has {} rows, not seeding", existing);
+            return;
+        }
+        
+        Long maxId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM users", Long.class);
+        long firstId = (maxId != null ? maxId : 0) + 1;
+        logger.info("Seeding {} users starting at id {}", missing, firstId);
+        long start = System.nanoTime();
+        
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        for (long from = 0; from < missing; from += batchSize) {
+            List<Object[]> rows = new ArrayList<>(batchSize);
+            for (long i = from; i < Math.min(from + batchSize, missing); i++) {
+                rows.add(row(firstId + i));
+            }
+            transaction.executeWithoutResult(status -> jdbcTemplate.batchUpdate(
+                    "INSERT INTO users (id, first_name, last_name, age, birthday, first_name_norm, last_name_norm, " +
+                    "version) VALUES (?, ?, ?, ?, ?, ?, ?, 0)", rows));
+            if ((from / batchSize) % 50 == 0) {
+                logger.info("Seeded {} / {} users", Math.min(from + batchSize, missing), missing);
+            }
+        }
+        
+        moveSequencePast(firstId + missing);
+        logger.info("Seeded {} users in {} s", missing, (System.nanoTime() - start) / 1_000_000_000);
+    }
+    
+    private static Object[] row(long id) {
+        String firstName = FIRST_NAMES[(int) (id % FIRST_NAMES.length)];
+        String lastName = LAST_NAMES[(int) ((id / FIRST_NAMES.length) % LAST_NAMES.length)] + (id / 1000);
+        int age = 18 + (int) (id % 60);
+        Date birthday = Date.valueOf(LocalDate.of(1950, 1, 1).plusDays(id % 20000));
+        return new Object[]{id, firstName, lastName, age, birthday,
+                User.normalizeName(firstName), User.normalizeName(lastName)};
+    }
+    
+    // Hibernate's pooled optimizer hands out the block below the value it reads, so leave a block of headroom
+    private void moveSequencePast(long nextFreeId) {
+        long next = nextFreeId + 100;
+        String product = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                connection.getMetaData().getDatabaseProductName());
+        if ("H2".equals(product)) {
+            jdbcTemplate.execute("ALTER SEQUENCE users_id_seq RESTART WITH " + next);
+        } else {
+            // MySQL has no sequences; Hibernate emulates them with a single-row table
+            jdbcTemplate.update("UPDATE users_id_seq SET next_val = ?", next);
+        }
+    }
+}
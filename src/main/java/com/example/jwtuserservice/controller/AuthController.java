@@ -4,7 +4,7 @@ import com.example.jwtuserservice.dto.AuthRequest;
 import com.example.jwtuserservice.dto.AuthResponse;
 import com.example.jwtuserservice.service.AuthService;
 import com.example.jwtuserservice.repository.LoginRepository;
-import com.example.jwtuserservice.entity.Login;
+import com.example.jwtuserservice.security.PasswordHashingOverloadedException;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -28,24 +28,30 @@ public class AuthController {
     
     @PostMapping("/signin")
     public ResponseEntity<AuthResponse> signIn(@Valid @RequestBody AuthRequest authRequest) {
-        logger.info("POST /api/auth/signin - User attempting to sign in: {}", authRequest.getUsername());
+        logger.debug("POST /api/auth/signin - User attempting to sign in: {}", authRequest.getUsername());
         try {
             AuthResponse response = authService.authenticate(authRequest);
-            logger.info("POST /api/auth/signin - User signed in successfully: {}", authRequest.getUsername());
+            logger.debug("POST /api/auth/signin - User signed in successfully: {}", authRequest.getUsername());
             return ResponseEntity.ok(response);
+        } catch (PasswordHashingOverloadedException e) {
+            logger.warn("POST /api/auth/signin - Rejected, hashing capacity exhausted: {}", authRequest.getUsername());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
         } catch (Exception e) {
-            logger.error("POST /api/auth/signin - Sign in failed for user: {}", authRequest.getUsername(), e);
+            logger.debug("POST /api/auth/signin - Sign in failed for user: {}", authRequest.getUsername());
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
         }
     }
     
     @PostMapping("/signup")
     public ResponseEntity<AuthResponse> signUp(@Valid @RequestBody AuthRequest authRequest) {
-        logger.info("POST /api/auth/signup - User attempting to sign up: {}", authRequest.getUsername());
+        logger.debug("POST /api/auth/signup - User attempting to sign up: {}", authRequest.getUsername());
         try {
             AuthResponse response = authService.signUp(authRequest);
-            logger.info("POST /api/auth/signup - User signed up successfully: {}", authRequest.getUsername());
+            logger.debug("POST /api/auth/signup - User signed up successfully: {}", authRequest.getUsername());
             return ResponseEntity.status(HttpStatus.CREATED).body(response);
+        } catch (PasswordHashingOverloadedException e) {
+            logger.warn("POST /api/auth/signup - Rejected, hashing capacity exhausted: {}", authRequest.getUsername());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
         } catch (Exception e) {
             logger.error("POST /api/auth/signup - Sign up failed for user: {}", authRequest.getUsername(), e);
             return ResponseEntity.badRequest().build();
@@ -54,7 +60,7 @@ public class AuthController {
     
     @PostMapping("/refresh")
     public ResponseEntity<AuthResponse> refreshToken(@RequestHeader("Authorization") String authorizationHeader) {
-        logger.info("POST /api/auth/refresh - Refreshing token");
+        logger.debug("POST /api/auth/refresh - Refreshing token");
         try {
             if (authorizationHeader == null || !authorizationHeader.startsWith("Bearer ")) {
                 logger.warn("POST /api/auth/refresh - Invalid authorization header");
@@ -63,17 +69,17 @@ public class AuthController {
             
             String refreshToken = authorizationHeader.substring(7);
             AuthResponse response = authService.refreshToken(refreshToken);
-            logger.info("POST /api/auth/refresh - Token refreshed successfully");
+            logger.debug("POST /api/auth/refresh - Token refreshed successfully");
             return ResponseEntity.ok(response);
         } catch (Exception e) {
-            logger.error("POST /api/auth/refresh - Token refresh failed", e);
+            logger.debug("POST /api/auth/refresh - Token refresh failed");
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
         }
     }
     
     @PostMapping("/signout")
     public ResponseEntity<Void> signOut(@RequestHeader("Authorization") String authorizationHeader) {
-        logger.info("POST /api/auth/signout - User attempting to sign out");
+        logger.debug("POST /api/auth/signout - User attempting to sign out");
         try {
             if (authorizationHeader == null || !authorizationHeader.startsWith("Bearer ")) {
                 logger.warn("POST /api/auth/signout - Invalid authorization header");
@@ -82,43 +88,36 @@ public class AuthController {
             
             String accessToken = authorizationHeader.substring(7);
             authService.signOut(accessToken);
-            logger.info("POST /api/auth/signout - User signed out successfully");
+            logger.debug("POST /api/auth/signout - User signed out successfully");
             return ResponseEntity.ok().build();
         } catch (Exception e) {
-            logger.error("POST /api/auth/signout - Sign out failed", e);
+            logger.debug("POST /api/auth/signout - Sign out failed");
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
         }
     }
     
     @GetMapping("/test")
     public ResponseEntity<String> test() {
-        logger.info("GET /api/auth/test - Test endpoint called");
+        logger.debug("GET /api/auth/test - Test endpoint called");
         return ResponseEntity.ok("Auth service is working!");
     }
     
     @GetMapping("/health")
     public ResponseEntity<String> health() {
-        logger.info("GET /api/auth/health - Health check called");
+        logger.debug("GET /api/auth/health - Health check called");
         return ResponseEntity.ok("Auth service is healthy!");
     }
     
     @GetMapping("/db-check")
     public ResponseEntity<String> dbCheck() {
-        logger.info("GET /api/auth/db-check - Database check called");
+        logger.debug("GET /api/auth/db-check - Database check called");
         try {
             long userCount = loginRepository.count();
-            logger.info("Database user count: {}", userCount);
+            logger.debug("Database user count: {}", userCount);
             
             // Check if john.doe exists
             boolean johnExists = loginRepository.existsByUsername("john.doe");
-            logger.info("User 'john.doe' exists: {}", johnExists);
-            
-            if (johnExists) {
-                Login johnLogin = loginRepository.findByUsername("john.doe").orElse(null);
-                if (johnLogin != null) {
-                    logger.info("John's password hash: {}", johnLogin.getPassword());
-                }
-            }
+            logger.debug("User 'john.doe' exists: {}", johnExists);
             
             return ResponseEntity.ok("Database is working! User count: " + userCount + ", john.doe exists: " + johnExists);
         } catch (Exception e) {
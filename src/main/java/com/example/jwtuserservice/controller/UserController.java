@@ -1,16 +1,35 @@
 package com.example.jwtuserservice.controller;
 
+import com.example.jwtuserservice.dto.BatchRowResult;
 import com.example.jwtuserservice.dto.UserDto;
+import com.example.jwtuserservice.service.UserBatchService;
 import com.example.jwtuserservice.service.UserService;
+import com.example.jwtuserservice.service.UserTableVersion;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/users")
@@ -20,24 +39,114 @@ public class UserController {
     // Test here
     private static final Logger logger = LoggerFactory.getLogger(UserController.class);
     
+    private static final int MAX_PAGE_SIZE = 1000;
+    
+    private static final int STREAM_FLUSH_INTERVAL = 500;
+    
+    private static final MediaType APPLICATION_NDJSON = MediaType.parseMediaType("application/x-ndjson");
+    
     @Autowired
     private UserService userService;
     
+    @Autowired
+    private UserBatchService userBatchService;
+    
+    @Autowired
+    private UserTableVersion userTableVersion;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Value("${datasource.replica.enabled:false}")
+    private boolean replicaReads;
+    
+    /**
+     * Without {@code limit} returns every user (legacy behaviour). With {@code limit} returns one keyset page of users
+     * whose id is greater than {@code after}; the cursor for the next page is sent in the {@code X-Next-Cursor} header.
+     */
     @GetMapping
-    public ResponseEntity<List<UserDto>> getAllUsers() {
-        logger.info("GET /api/users - Fetching all users");
-        List<UserDto> users = userService.getAllUsers();
-        logger.info("GET /api/users - Retrieved {} users", users.size());
-        return ResponseEntity.ok(users);
+    public ResponseEntity<List<UserDto>> getAllUsers(@RequestParam(required = false) Long after,
+                                                     @RequestParam(required = false) Integer limit,
+                                                     WebRequest webRequest) {
+        String etag = tableEtag();
+        if (tableNotModified(webRequest, etag)) {
+            logger.debug("GET /api/users - Not modified");
+            return notModified(etag);
+        }
+        
+        if (limit == null) {
+            logger.debug("GET /api/users - Fetching all users");
+            List<UserDto> users = userService.getAllUsers();
+            logger.debug("GET /api/users - Retrieved {} users", users.size());
+            return okWithTableEtag(etag).body(users);
+        }
+        
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        logger.debug("GET /api/users?after={}&limit={} - Fetching users page", after, pageSize);
+        List<UserDto> users = userService.getUsersPage(after, pageSize);
+        ResponseEntity.BodyBuilder response = okWithTableEtag(etag);
+        if (users.size() == pageSize) {
+            response.header("X-Next-Cursor", String.valueOf(users.get(users.size() - 1).getId()));
+        }
+        logger.debug("GET /api/users - Retrieved page of {} users", users.size());
+        return response.body(users);
+    }
+    
+    /**
+     * Streams all users straight from a database cursor, either as NDJSON (default) or as a single JSON array.
+     * Memory use is constant regardless of table size.
+     */
+    @GetMapping("/stream")
+    public ResponseEntity<StreamingResponseBody> streamUsers(@RequestParam(defaultValue = "ndjson") String format) {
+        boolean ndjson = !"json".equalsIgnoreCase(format);
+        logger.debug("GET /api/users/stream?format={} - Streaming users", ndjson ? "ndjson" : "json");
+        ObjectWriter writer = objectMapper.writerFor(UserDto.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        
+        StreamingResponseBody body = outputStream -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+                if (!ndjson) {
+                    generator.writeStartArray();
+                }
+                long[] written = {0};
+                userService.streamUsers(user -> {
+                    try {
+                        writer.writeValue(generator, user);
+                        if (ndjson) {
+                            generator.writeRaw('\n');
+                        }
+                        if (++written[0] % STREAM_FLUSH_INTERVAL == 0) {
+                            generator.flush();
+                        }
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                if (!ndjson) {
+                    generator.writeEndArray();
+                }
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        };
+        
+        return ResponseEntity.ok()
+                .contentType(ndjson ? APPLICATION_NDJSON : MediaType.APPLICATION_JSON)
+                .body(body);
     }
     
     @GetMapping("/{id}")
-    public ResponseEntity<UserDto> getUserById(@PathVariable Long id) {
-        logger.info("GET /api/users/{} - Fetching user by id", id);
+    public ResponseEntity<UserDto> getUserById(@PathVariable Long id, WebRequest webRequest) {
+        logger.debug("GET /api/users/{} - Fetching user by id", id);
         return userService.getUserById(id)
                 .map(user -> {
-                    logger.info("GET /api/users/{} - User found", id);
-                    return ResponseEntity.ok(user);
+                    String etag = UserTableVersion.etag(user);
+                    if (webRequest.checkNotModified(etag)) {
+                        logger.debug("GET /api/users/{} - Not modified", id);
+                        return UserController.<UserDto>notModified(etag);
+                    }
+                    logger.debug("GET /api/users/{} - User found", id);
+                    return ResponseEntity.ok().eTag(etag).cacheControl(CacheControl.noCache()).body(user);
                 })
                 .orElseGet(() -> {
                     logger.warn("GET /api/users/{} - User not found", id);
@@ -46,19 +155,28 @@ public class UserController {
     }
     
     @GetMapping("/search")
-    public ResponseEntity<List<UserDto>> searchUsers(@RequestParam(required = false) String q) {
-        logger.info("GET /api/users/search?q={} - Searching users", q);
-        List<UserDto> users = userService.searchUsers(q);
-        logger.info("GET /api/users/search - Found {} users matching criteria", users.size());
-        return ResponseEntity.ok(users);
+    public ResponseEntity<List<UserDto>> searchUsers(@RequestParam(required = false) String q,
+                                                     @RequestParam(required = false) Integer limit,
+                                                     WebRequest webRequest) {
+        // ETags are scoped to the request URL, so the table version alone identifies each query's result
+        String etag = tableEtag();
+        if (tableNotModified(webRequest, etag)) {
+            logger.debug("GET /api/users/search?q={} - Not modified", q);
+            return notModified(etag);
+        }
+        
+        logger.debug("GET /api/users/search?q={} - Searching users", q);
+        List<UserDto> users = userService.searchUsers(q, limit);
+        logger.debug("GET /api/users/search - Found {} users matching criteria", users.size());
+        return okWithTableEtag(etag).body(users);
     }
     
     @PostMapping
     public ResponseEntity<UserDto> createUser(@Valid @RequestBody UserDto userDto) {
-        logger.info("POST /api/users - Creating new user: {} {}", userDto.getFirstName(), userDto.getLastName());
+        logger.debug("POST /api/users - Creating new user: {} {}", userDto.getFirstName(), userDto.getLastName());
         try {
             UserDto createdUser = userService.createUser(userDto);
-            logger.info("POST /api/users - User created successfully with id: {}", createdUser.getId());
+            logger.debug("POST /api/users - User created successfully with id: {}", createdUser.getId());
             return ResponseEntity.status(HttpStatus.CREATED).body(createdUser);
         } catch (Exception e) {
             logger.error("POST /api/users - Error creating user", e);
@@ -66,26 +184,58 @@ public class UserController {
         }
     }
     
+    /**
+     * Creates users from a JSON array that is parsed incrementally, so arbitrarily large payloads are never held in
+     * memory as a whole. Returns one result per input row.
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<List<BatchRowResult>> createUsers(InputStream body) throws IOException {
+        logger.debug("POST /api/users/batch - Creating users in bulk");
+        try (MappingIterator<UserDto> rows = objectMapper.readerFor(UserDto.class).readValues(body)) {
+            List<BatchRowResult> results = userBatchService.createUsers(rows);
+            logger.debug("POST /api/users/batch - Processed {} rows", results.size());
+            return ResponseEntity.ok(results);
+        }
+    }
+    
+    /**
+     * Updates users from a JSON array of users with ids, parsed incrementally. Returns one result per input row.
+     */
+    @PutMapping("/batch")
+    public ResponseEntity<List<BatchRowResult>> updateUsers(InputStream body) throws IOException {
+        logger.debug("PUT /api/users/batch - Updating users in bulk");
+        try (MappingIterator<UserDto> rows = objectMapper.readerFor(UserDto.class).readValues(body)) {
+            List<BatchRowResult> results = userBatchService.updateUsers(rows);
+            logger.debug("PUT /api/users/batch - Processed {} rows", results.size());
+            return ResponseEntity.ok(results);
+        }
+    }
+    
     @PutMapping("/{id}")
     public ResponseEntity<UserDto> updateUser(@PathVariable Long id, @Valid @RequestBody UserDto userDto) {
-        logger.info("PUT /api/users/{} - Updating user", id);
-        return userService.updateUser(id, userDto)
-                .map(updatedUser -> {
-                    logger.info("PUT /api/users/{} - User updated successfully", id);
-                    return ResponseEntity.ok(updatedUser);
-                })
-                .orElseGet(() -> {
-                    logger.warn("PUT /api/users/{} - User not found for update", id);
-                    return ResponseEntity.notFound().build();
-                });
+        logger.debug("PUT /api/users/{} - Updating user", id);
+        try {
+            return userService.updateUser(id, userDto)
+                    .map(updatedUser -> {
+                        logger.debug("PUT /api/users/{} - User updated successfully", id);
+                        return ResponseEntity.ok(updatedUser);
+                    })
+                    .orElseGet(() -> {
+                        logger.warn("PUT /api/users/{} - User not found for update", id);
+                        return ResponseEntity.notFound().build();
+                    });
+        } catch (OptimisticLockingFailureException e) {
+            logger.warn("PUT /api/users/{} - Version conflict", id);
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
     }
     
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteUser(@PathVariable Long id) {
-        logger.info("DELETE /api/users/{} - Deleting user", id);
+        logger.debug("DELETE /api/users/{} - Deleting user", id);
         boolean deleted = userService.deleteUser(id);
         if (deleted) {
-            logger.info("DELETE /api/users/{} - User deleted successfully", id);
+            logger.debug("DELETE /api/users/{} - User deleted successfully", id);
             return ResponseEntity.noContent().build();
         } else {
             logger.warn("DELETE /api/users/{} - User not found for deletion", id);
@@ -94,15 +244,58 @@ public class UserController {
     }
     
     @DeleteMapping("/batch")
-    public ResponseEntity<Void> deleteUsers(@RequestBody List<Long> ids) {
-        logger.info("DELETE /api/users/batch - Deleting {} users", ids.size());
-        boolean deleted = userService.deleteUsers(ids);
-        if (deleted) {
-            logger.info("DELETE /api/users/batch - Users deleted successfully");
-            return ResponseEntity.noContent().build();
+    public ResponseEntity<Map<String, Integer>> deleteUsers(@RequestBody List<Long> ids) {
+        logger.debug("DELETE /api/users/batch - Deleting {} users", ids.size());
+        int deleted = userService.deleteUsers(ids);
+        if (deleted > 0) {
+            logger.debug("DELETE /api/users/batch - {} users deleted successfully", deleted);
+            return ResponseEntity.ok(Map.of("deleted", deleted));
         } else {
             logger.warn("DELETE /api/users/batch - No users found for deletion");
             return ResponseEntity.notFound().build();
         }
     }
-} 
\ No newline at end of file
+    
+    // Null when collections are served by replicas: the table version only tracks writes seen by the primary
+    private String tableEtag() {
+        return replicaReads ? null : userTableVersion.etag();
+    }
+    
+    // Matched by hand because WebRequest.checkNotModified also puts the tag on the response, before we know whether
+    // it still describes the body
+    private static boolean tableNotModified(WebRequest webRequest, String etag) {
+        String[] ifNoneMatch = webRequest.getHeaderValues(HttpHeaders.IF_NONE_MATCH);
+        if (etag == null || ifNoneMatch == null) {
+            return false;
+        }
+        for (String header : ifNoneMatch) {
+            for (String candidate : header.split(",")) {
+                String tag = candidate.trim();
+                if (tag.startsWith("W/")) {
+                    tag = tag.substring(2);
+                }
+                if (tag.equals("*") || tag.equals(etag)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+    
+    // The table version is read again after the query: if a write was committed in between, the body could belong to
+    // either version, so no ETag is sent rather than one that might be newer than the body
+    private ResponseEntity.BodyBuilder okWithTableEtag(String etagBeforeRead) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok().cacheControl(CacheControl.noCache());
+        if (etagBeforeRead != null && etagBeforeRead.equals(userTableVersion.etag())) {
+            response.eTag(etagBeforeRead);
+        }
+        return response;
+    }
+    
+    private static <T> ResponseEntity<T> notModified(String etag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache())
+                .build();
+    }
+}
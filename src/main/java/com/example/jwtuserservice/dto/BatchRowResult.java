@@ -0,0 +1,80 @@
+package com.example.jwtuserservice.dto;
+
+public class BatchRowResult {
+    
+    public enum Status {
+        CREATED,
+        UPDATED,
+        NOT_FOUND,
+        CONFLICT,
+        INVALID,
+        FAILED
+    }
+    
+    private int index;
+    private Long id;
+    private Status status;
+    private String error;
+    
+    // Default constructor
+    public BatchRowResult() {}
+    
+    // Constructor with fields
+    public BatchRowResult(int index, Long id, Status status, String error) {
+        this.index = index;
+        this.id = id;
+        this.status = status;
+        this.error = error;
+    }
+    
+    public static BatchRowResult success(int index, Long id, Status status) {
+        return new BatchRowResult(index, id, status, null);
+    }
+    
+    public static BatchRowResult failure(int index, Long id, Status status, String error) {
+        return new BatchRowResult(index, id, status, error);
+    }
+    
+    // Getters and Setters
+    public int getIndex() {
+        return index;
+    }
+    
+    public void setIndex(int index) {
+        this.index = index;
+    }
+    
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public Status getStatus() {
+        return status;
+    }
+    
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+    
+    public String getError() {
+        return error;
+    }
+    
+    public void setError(String error) {
+        this.error = error;
+    }
+    
+    @Override
+    public String toString() {
+        return "BatchRowResult{" +
+                "index=" + index +
+                ", id=" + id +
+                ", status=" + status +
+                ", error='" + error + '\'' +
+                '}';
+    }
+}
@@ -23,6 +23,9 @@ public class UserDto {
     @JsonFormat(pattern = "yyyy-MM-dd")
     private Date birthday;
     
+    // Optional on updates: when present the update only succeeds if the row still has this version
+    private Long version;
+    
     // Default constructor
     public UserDto() {}
     
@@ -35,6 +38,11 @@ public class UserDto {
         this.birthday = birthday;
     }
     
+    public UserDto(Long id, String firstName, String lastName, Integer age, Date birthday, Long version) {
+        this(id, firstName, lastName, age, birthday);
+        this.version = version;
+    }
+    
     // Getters and Setters
     public Long getId() {
         return id;
@@ -76,6 +84,14 @@ public class UserDto {
         this.birthday = birthday;
     }
     
+    public Long getVersion() {
+        return version;
+    }
+    
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+    
     @Override
     public String toString() {
         return "UserDto{" +
@@ -84,6 +100,7 @@ public class UserDto {
                 ", lastName='" + lastName + '\'' +
                 ", age=" + age +
                 ", birthday=" + birthday +
+                ", version=" + version +
                 '}';
     }
 } 
\ No newline at end of file
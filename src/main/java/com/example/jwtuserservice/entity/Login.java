@@ -7,8 +7,10 @@ import jakarta.validation.constraints.NotBlank;
 @Table(name = "login")
 public class Login {
     
+    // Pooled allocator, see User.id
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "login_id_gen")
+    @SequenceGenerator(name = "login_id_gen", sequenceName = "login_id_seq", allocationSize = 100)
     private Long id;
     
     @NotBlank(message = "Username is required")
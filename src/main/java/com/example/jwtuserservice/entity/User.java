@@ -2,14 +2,24 @@ package com.example.jwtuserservice.entity;
 
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
+import java.text.Normalizer;
 import java.util.Date;
+import java.util.Locale;
+import java.util.regex.Pattern;
 
 @Entity
-@Table(name = "users")
+@Table(name = "users", indexes = {
+        @Index(name = "idx_users_first_name_norm", columnList = "first_name_norm"),
+        @Index(name = "idx_users_last_name_norm", columnList = "last_name_norm")
+})
 public class User {
     
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+    
+    // Pooled allocator: ids are reserved in blocks so inserts can be sent as JDBC batches (IDENTITY cannot batch)
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_id_gen")
+    @SequenceGenerator(name = "users_id_gen", sequenceName = "users_id_seq", allocationSize = 100)
     private Long id;
     
     @NotBlank(message = "First name is required")
@@ -31,6 +41,18 @@ public class User {
     @Temporal(TemporalType.DATE)
     private Date birthday;
     
+    // Lower-cased, accent-free copies of the names so searches can use plain indexed prefix matches
+    @Column(name = "first_name_norm", length = 50)
+    private String firstNameNormalized;
+    
+    @Column(name = "last_name_norm", length = 50)
+    private String lastNameNormalized;
+    
+    // Left null until persisted so Spring Data still detects new entities; Hibernate starts it at 0
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+    
     // Default constructor
     public User() {}
     
@@ -42,6 +64,30 @@ public class User {
         this.birthday = birthday;
     }
     
+    @PrePersist
+    @PreUpdate
+    void normalizeNames() {
+        this.firstNameNormalized = normalizeName(firstName);
+        this.lastNameNormalized = normalizeName(lastName);
+    }
+    
+    /**
+     * Normalization shared by the stored search columns and incoming search terms.
+     */
+    public static String normalizeName(String value) {
+        if (value == null) {
+            return null;
+        }
+        String trimmed = value.trim();
+        for (int i = 0; i < trimmed.length(); i++) {
+            if (trimmed.charAt(i) > 0x7F) {
+                String decomposed = Normalizer.normalize(trimmed, Normalizer.Form.NFD);
+                return COMBINING_MARKS.matcher(decomposed).replaceAll("").toLowerCase(Locale.ROOT);
+            }
+        }
+        return trimmed.toLowerCase(Locale.ROOT);
+    }
+    
     // Getters and Setters
     public Long getId() {
         return id;
@@ -83,6 +129,22 @@ public class User {
         this.birthday = birthday;
     }
     
+    public Long getVersion() {
+        return version;
+    }
+    
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+    
+    public String getFirstNameNormalized() {
+        return firstNameNormalized;
+    }
+    
+    public String getLastNameNormalized() {
+        return lastNameNormalized;
+    }
+    
     @Override
     public String toString() {
         return "User{" +
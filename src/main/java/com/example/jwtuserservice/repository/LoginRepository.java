@@ -2,8 +2,13 @@ package com.example.jwtuserservice.repository;
 
 import com.example.jwtuserservice.entity.Login;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -12,4 +17,11 @@ public interface LoginRepository extends JpaRepository<Login, Long> {
     Optional<Login> findByUsername(String username);
     
     boolean existsByUsername(String username);
+    
+    @Query("SELECT l.username FROM Login l WHERE l.user.id IN :userIds")
+    List<String> findUsernamesByUserIds(@Param("userIds") Collection<Long> userIds);
+    
+    @Modifying
+    @Query("DELETE FROM Login l WHERE l.user.id IN :userIds")
+    int deleteByUserIds(@Param("userIds") Collection<Long> userIds);
 } 
\ No newline at end of file
@@ -1,21 +1,107 @@
 package com.example.jwtuserservice.repository;
 
+import com.example.jwtuserservice.dto.UserDto;
 import com.example.jwtuserservice.entity.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.Date;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
     
+    // Constructor projection: rows go straight into DTOs, skipping managed entities and their dirty-checking snapshots
+    String SELECT_USER_DTO = "SELECT new com.example.jwtuserservice.dto.UserDto(" +
+                             "u.id, u.firstName, u.lastName, u.age, u.birthday, u.version) FROM User u ";
+    
     @Query("SELECT u FROM User u WHERE LOWER(u.firstName) LIKE LOWER(CONCAT('%', :searchTerm, '%')) " +
            "OR LOWER(u.lastName) LIKE LOWER(CONCAT('%', :searchTerm, '%'))")
     List<User> findByFirstNameOrLastNameContainingIgnoreCase(@Param("searchTerm") String searchTerm);
     
+    @Transactional(readOnly = true)
+    @Query(SELECT_USER_DTO + "WHERE LOWER(u.firstName) LIKE LOWER(CONCAT('%', :searchTerm, '%')) " +
+           "OR LOWER(u.lastName) LIKE LOWER(CONCAT('%', :searchTerm, '%'))")
+    List<UserDto> findDtosByFirstNameOrLastNameContainingIgnoreCase(@Param("searchTerm") String searchTerm,
+                                                                    Limit limit);
+    
     List<User> findByFirstNameContainingIgnoreCase(String firstName);
     
     List<User> findByLastNameContainingIgnoreCase(String lastName);
-} 
\ No newline at end of file
+    
+    // Prefix matches on the normalized, indexed name columns ('!' escapes LIKE wildcards in the term)
+    @Transactional(readOnly = true)
+    @Query(SELECT_USER_DTO + "WHERE u.firstNameNormalized LIKE :prefix ESCAPE '!' " +
+           "OR u.lastNameNormalized LIKE :prefix ESCAPE '!'")
+    List<UserDto> findDtosByNamePrefix(@Param("prefix") String prefix, Limit limit);
+    
+    @Transactional(readOnly = true)
+    @Query(SELECT_USER_DTO + "WHERE u.firstNameNormalized LIKE :firstPrefix ESCAPE '!' " +
+           "AND u.lastNameNormalized LIKE :lastPrefix ESCAPE '!'")
+    List<UserDto> findDtosByFirstAndLastNamePrefix(@Param("firstPrefix") String firstPrefix,
+                                                   @Param("lastPrefix") String lastPrefix, Limit limit);
+    
+    // Requires the idx_users_name_fulltext FULLTEXT index (created by DatabaseUserSearchEngine in fulltext mode).
+    // Native queries cannot use constructor projections, so the entities are loaded read-only instead.
+    @Transactional(readOnly = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @Query(value = "SELECT * FROM users WHERE MATCH(first_name, last_name) AGAINST (:term IN BOOLEAN MODE) " +
+                   "LIMIT :limit",
+           nativeQuery = true)
+    List<User> findByNameFullText(@Param("term") String term, @Param("limit") int limit);
+    
+    @Transactional(readOnly = true)
+    @Query(SELECT_USER_DTO)
+    List<UserDto> findAllDtos();
+    
+    @Transactional(readOnly = true)
+    @Query(SELECT_USER_DTO + "WHERE u.id = :id")
+    Optional<UserDto> findDtoById(@Param("id") Long id);
+    
+    @Query("SELECT u.version FROM User u WHERE u.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+    
+    // Keyset pagination: seeks on the primary key instead of using OFFSET
+    @Transactional(readOnly = true)
+    @Query(SELECT_USER_DTO + "WHERE u.id > :afterId ORDER BY u.id")
+    List<UserDto> findDtosAfterId(@Param("afterId") Long afterId, Limit limit);
+    
+    // Cursor-based read for streaming; entities are read-only and fetched in chunks rather than all at once
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT u FROM User u ORDER BY u.id")
+    Stream<User> streamAllOrderedById();
+    
+    // Set-based delete: one statement per chunk of ids, no entities loaded
+    @Modifying
+    @Query("DELETE FROM User u WHERE u.id IN :ids")
+    int deleteByIds(@Param("ids") Collection<Long> ids);
+    
+    // Single-statement update without a prior SELECT; a null version skips the optimistic check
+    @Modifying
+    @Query("UPDATE User u SET u.firstName = :firstName, u.lastName = :lastName, u.age = :age, " +
+           "u.birthday = :birthday, u.firstNameNormalized = :firstNameNormalized, " +
+           "u.lastNameNormalized = :lastNameNormalized, u.version = u.version + 1 " +
+           "WHERE u.id = :id AND (:version IS NULL OR u.version = :version)")
+    int updateById(@Param("id") Long id,
+                   @Param("firstName") String firstName,
+                   @Param("lastName") String lastName,
+                   @Param("age") Integer age,
+                   @Param("birthday") Date birthday,
+                   @Param("firstNameNormalized") String firstNameNormalized,
+                   @Param("lastNameNormalized") String lastNameNormalized,
+                   @Param("version") Long version);
+}
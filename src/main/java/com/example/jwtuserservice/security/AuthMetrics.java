@@ -0,0 +1,58 @@
+package com.example.jwtuserservice.security;
+
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.security.SignatureException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Counts rejected authentication attempts as {@code auth.failures}, tagged with the operation
+ * ({@code signin}, {@code signup}, {@code refresh}, {@code signout}, {@code request}) and the reason.
+ */
+@Component
+public class AuthMetrics {
+    
+    public static final String FAILURES = "auth.failures";
+    
+    public static final String REASON_BAD_CREDENTIALS = "bad_credentials";
+    public static final String REASON_ACCOUNT_REJECTED = "account_rejected";
+    public static final String REASON_OVERLOADED = "overloaded";
+    public static final String REASON_USERNAME_TAKEN = "username_taken";
+    public static final String REASON_WRONG_TOKEN_TYPE = "wrong_token_type";
+    public static final String REASON_ERROR = "error";
+    
+    @Autowired(required = false)
+    private MeterRegistry meterRegistry;
+    
+    private MeterRegistry registry;
+    
+    @PostConstruct
+    public void init() {
+        registry = meterRegistry != null ? meterRegistry : Metrics.globalRegistry;
+    }
+    
+    public void failure(String operation, String reason) {
+        registry.counter(FAILURES, "operation", operation, "reason", reason).increment();
+    }
+    
+    public void failure(String operation, JwtException e) {
+        failure(operation, reasonOf(e));
+    }
+    
+    static String reasonOf(JwtException e) {
+        if (e instanceof ExpiredJwtException) {
+            return "expired";
+        }
+        if (e instanceof RevokedTokenException) {
+            return "revoked";
+        }
+        if (e instanceof SignatureException) {
+            return "invalid_signature";
+        }
+        return "malformed";
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.jwtuserservice.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@link UserDetailsService} decorator that keeps recently loaded credentials in memory with TTL and size eviction.
+ * Callers that change a {@code Login} row must call {@link #evict(String)} so the next lookup sees the new data.
+ * Lookups run outside the cache's per-key computation so a virtual thread is not pinned during the database read.
+ */
+public class CachedUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(CachedUserDetailsService.class);
+    
+    private final UserDetailsService delegate;
+    
+    private final Cache<String, CachedCredentials> cache;
+    
+    private final AtomicLong invalidations = new AtomicLong();
+    
+    public CachedUserDetailsService(UserDetailsService delegate, Duration ttl, long maxSize) {
+        this.delegate = delegate;
+        this.cache = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maxSize)
+                .recordStats()
+                .build();
+        logger.info("User details cache enabled with ttl: {}, max size: {}", ttl, maxSize);
+    }
+    
+    @Override
+    public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
+        CachedCredentials cached = cache.getIfPresent(username);
+        if (cached != null) {
+            return cached.toUserDetails();
+        }
+        // Unknown usernames throw from the delegate and are never cached
+        long generation = invalidations.get();
+        CachedCredentials loaded = CachedCredentials.of(delegate.loadUserByUsername(username));
+        cache.asMap().compute(username, (key, current) -> invalidations.get() == generation ? loaded : current);
+        return loaded.toUserDetails();
+    }
+    
+    /**
+     * Forwards password hash upgrades to the delegate and drops the stale cached credentials.
+     */
+    @Override
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        if (!(delegate instanceof UserDetailsPasswordService)) {
+            return user;
+        }
+        try {
+            return ((UserDetailsPasswordService) delegate).updatePassword(user, newPassword);
+        } finally {
+            evict(user.getUsername());
+        }
+    }
+    
+    public void evict(String username) {
+        logger.debug("Evicting cached credentials for user: {}", username);
+        invalidations.incrementAndGet();
+        cache.invalidate(username);
+    }
+    
+    public void evictAll(Collection<String> usernames) {
+        invalidations.incrementAndGet();
+        cache.invalidateAll(usernames);
+    }
+    
+    public CacheStats getStats() {
+        return cache.stats();
+    }
+    
+    public Cache<?, ?> getNativeCache() {
+        return cache;
+    }
+    
+    /**
+     * Immutable snapshot of the credentials. A fresh {@link User} is handed out on every call because the
+     * authentication manager erases credentials on the instance it authenticated.
+     */
+    private static final class CachedCredentials {
+        
+        private final String username;
+        private final String password;
+        private final List<GrantedAuthority> authorities;
+        private final boolean enabled;
+        private final boolean accountNonExpired;
+        private final boolean credentialsNonExpired;
+        private final boolean accountNonLocked;
+        
+        private CachedCredentials(UserDetails userDetails) {
+            this.username = userDetails.getUsername();
+            this.password = userDetails.getPassword();
+            this.authorities = List.copyOf(userDetails.getAuthorities());
+            this.enabled = userDetails.isEnabled();
+            this.accountNonExpired = userDetails.isAccountNonExpired();
+            this.credentialsNonExpired = userDetails.isCredentialsNonExpired();
+            this.accountNonLocked = userDetails.isAccountNonLocked();
+        }
+        
+        static CachedCredentials of(UserDetails userDetails) {
+            return new CachedCredentials(userDetails);
+        }
+        
+        UserDetails toUserDetails() {
+            return new User(username, password, enabled, accountNonExpired, credentialsNonExpired,
+                    accountNonLocked, authorities);
+        }
+    }
+}
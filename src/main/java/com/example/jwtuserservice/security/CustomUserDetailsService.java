@@ -8,36 +8,64 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Collections;
 
 @Service
-public class CustomUserDetailsService implements UserDetailsService {
+public class CustomUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
     
     private static final Logger logger = LoggerFactory.getLogger(CustomUserDetailsService.class);
     
     @Autowired
     private LoginRepository loginRepository;
     
+    // Not read-only on purpose: credentials must come from the primary, a lagging replica could miss a fresh
+    // sign-up or hand back a hash that was just upgraded or changed
     @Override
+    @Transactional
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        logger.info("Loading user by username: {}", username);
+        logger.debug("Loading user by username: {}", username);
         
         try {
             Login login = loginRepository.findByUsername(username)
                     .orElseThrow(() -> new UsernameNotFoundException("User not found with username: " + username));
             
-            logger.info("User found in database: {}", username);
-            logger.debug("User password hash: {}", login.getPassword());
+            logger.debug("User found in database: {}", username);
             
-            return new User(login.getUsername(), login.getPassword(),
-                    Collections.singletonList(new SimpleGrantedAuthority("USER")));
+            return toUserDetails(login);
+        } catch (UsernameNotFoundException e) {
+            logger.debug("User not found: {}", username);
+            throw e;
         } catch (Exception e) {
             logger.error("Error loading user by username: {}", username, e);
             throw e;
         }
     }
-} 
\ No newline at end of file
+    
+    public static UserDetails toUserDetails(Login login) {
+        return new User(login.getUsername(), login.getPassword(),
+                Collections.singletonList(new SimpleGrantedAuthority("USER")));
+    }
+    
+    /**
+     * Stores a re-encoded password hash. Called by the authentication provider after a successful login
+     * when the stored hash was produced with an outdated encoder or cost setting.
+     */
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        logger.debug("Upgrading password hash for user: {}", user.getUsername());
+        
+        Login login = loginRepository.findByUsername(user.getUsername())
+                .orElseThrow(() -> new UsernameNotFoundException("User not found with username: " + user.getUsername()));
+        login.setPassword(newPassword);
+        loginRepository.save(login);
+        
+        return User.withUserDetails(user).password(newPassword).build();
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.jwtuserservice.security;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Process-local revocation store. Lookups are a single {@link ConcurrentHashMap} probe; expired entries are purged
+ * by a timing wheel of per-second buckets so cleanup never scans the whole map.
+ */
+@Component
+@ConditionalOnProperty(name = "jwt.revocation.store", havingValue = "memory", matchIfMissing = true)
+public class InMemoryTokenRevocationStore implements TokenRevocationStore {
+    
+    private static final Logger logger = LoggerFactory.getLogger(InMemoryTokenRevocationStore.class);
+    
+    @Value("${jwt.revocation.purge-interval-ms:10000}")
+    private long purgeIntervalMs;
+    
+    // jti -> expiry in epoch millis
+    private final Map<String, Long> revoked = new ConcurrentHashMap<>();
+    
+    // expiry second -> ids expiring within that second
+    private final ConcurrentSkipListMap<Long, Queue<String>> expiryWheel = new ConcurrentSkipListMap<>();
+    
+    private ScheduledExecutorService purger;
+    
+    @PostConstruct
+    public void init() {
+        purger = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("token-revocation-purge-"));
+        purger.scheduleWithFixedDelay(this::purgeExpired, purgeIntervalMs, purgeIntervalMs, TimeUnit.MILLISECONDS);
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        purger.shutdownNow();
+    }
+    
+    @Override
+    public void revoke(String tokenId, Instant expiresAt) {
+        long expiresAtMillis = expiresAt.toEpochMilli();
+        if (expiresAtMillis <= System.currentTimeMillis()) {
+            return;
+        }
+        // Keep the later expiry and file the id under it too; the purge skips buckets the id has since outgrown
+        if (revoked.merge(tokenId, expiresAtMillis, Math::max) == expiresAtMillis) {
+            expiryWheel.computeIfAbsent(expiresAtMillis / 1000, second -> new ConcurrentLinkedQueue<>()).add(tokenId);
+        }
+    }
+    
+    @Override
+    public boolean isRevoked(String tokenId) {
+        if (revoked.isEmpty()) {
+            return false;
+        }
+        Long expiresAt = revoked.get(tokenId);
+        return expiresAt != null && expiresAt > System.currentTimeMillis();
+    }
+    
+    public int size() {
+        return revoked.size();
+    }
+    
+    void purgeExpired() {
+        try {
+            long now = System.currentTimeMillis();
+            long nowSecond = now / 1000;
+            ConcurrentNavigableMap<Long, Queue<String>> due = expiryWheel.headMap(nowSecond, false);
+            int purged = 0;
+            for (Map.Entry<Long, Queue<String>> bucket : due.entrySet()) {
+                for (String tokenId : bucket.getValue()) {
+                    // A re-revoked id may have moved to a later bucket; only drop it once its stored expiry has passed
+                    Long remaining = revoked.computeIfPresent(tokenId,
+                            (id, expiresAt) -> expiresAt <= now ? null : expiresAt);
+                    if (remaining == null) {
+                        purged++;
+                    }
+                }
+                expiryWheel.remove(bucket.getKey(), bucket.getValue());
+            }
+            if (purged > 0) {
+                logger.debug("Purged {} expired revoked tokens, {} still revoked", purged, revoked.size());
+            }
+        } catch (RuntimeException e) {
+            logger.error("Failed to purge revoked tokens", e);
+        }
+    }
+}
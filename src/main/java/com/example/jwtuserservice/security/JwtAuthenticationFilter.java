@@ -0,0 +1,72 @@
+package com.example.jwtuserservice.security;
+
+import io.jsonwebtoken.JwtException;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Authenticates requests from the bearer access token alone. Subject and authorities come from the
+ * verified claims, so no {@code UserDetailsService} or database lookup happens per request.
+ */
+public class JwtAuthenticationFilter extends OncePerRequestFilter {
+    
+    private static final Logger logger = LoggerFactory.getLogger(JwtAuthenticationFilter.class);
+    
+    private static final String BEARER_PREFIX = "Bearer ";
+    
+    private final JwtUtil jwtUtil;
+    
+    private final AuthMetrics authMetrics;
+    
+    public JwtAuthenticationFilter(JwtUtil jwtUtil, AuthMetrics authMetrics) {
+        this.jwtUtil = jwtUtil;
+        this.authMetrics = authMetrics;
+    }
+    
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        // Auth endpoints handle their own tokens (refresh/signout) and are public anyway
+        return request.getRequestURI().startsWith("/api/auth/");
+    }
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (header != null && header.startsWith(BEARER_PREFIX)) {
+            authenticate(header.substring(BEARER_PREFIX.length()), request);
+        }
+        filterChain.doFilter(request, response);
+    }
+    
+    private void authenticate(String token, HttpServletRequest request) {
+        try {
+            VerifiedToken verified = jwtUtil.verify(token);
+            if (!verified.isAccessToken()) {
+                logger.debug("Rejected non-access token for {}", request.getRequestURI());
+                authMetrics.failure("request", AuthMetrics.REASON_WRONG_TOKEN_TYPE);
+                return;
+            }
+            
+            UsernamePasswordAuthenticationToken authentication = UsernamePasswordAuthenticationToken.authenticated(
+                    verified.getSubject(), null, verified.getAuthorities());
+            SecurityContext context = SecurityContextHolder.createEmptyContext();
+            context.setAuthentication(authentication);
+            SecurityContextHolder.setContext(context);
+        } catch (JwtException e) {
+            logger.debug("Invalid bearer token for {}: {}", request.getRequestURI(), e.getMessage());
+            authMetrics.failure("request", e);
+        }
+    }
+}
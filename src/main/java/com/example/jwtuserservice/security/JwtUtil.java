@@ -2,16 +2,28 @@ package com.example.jwtuserservice.security;
 
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.MacAlgorithm;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Date;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 
 @Component
@@ -19,6 +31,10 @@ public class JwtUtil {
     
     private static final Logger logger = LoggerFactory.getLogger(JwtUtil.class);
     
+    public static final String ROLES_CLAIM = "roles";
+    
+    public static final String SESSION_CLAIM = "sid";
+    
     @Value("${jwt.secret}")
     private String secret;
     
@@ -28,8 +44,136 @@ public class JwtUtil {
     @Value("${jwt.refresh-expiration}")
     private Long refreshExpiration;
     
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(secret.getBytes());
+    @Autowired
+    private VerifiedTokenCache verifiedTokenCache;
+    
+    @Autowired
+    private TokenRevocationStore tokenRevocationStore;
+    
+    // Falls back to the global registry when created outside a full application context
+    @Autowired(required = false)
+    private MeterRegistry meterRegistry;
+    
+    // Derived once at startup; the key, algorithm and parser are immutable and thread-safe
+    private SecretKey signingKey;
+    
+    private MacAlgorithm signatureAlgorithm;
+    
+    private JwtParser parser;
+    
+    private Timer signAccessTimer;
+    private Timer signRefreshTimer;
+    private Timer verifyCachedTimer;
+    private Timer verifyParsedTimer;
+    
+    @PostConstruct
+    public void init() {
+        signingKey = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        signatureAlgorithm = resolveAlgorithm(signingKey);
+        parser = Jwts.parser()
+                .verifyWith(signingKey)
+                .build();
+        
+        MeterRegistry registry = meterRegistry != null ? meterRegistry : Metrics.globalRegistry;
+        signAccessTimer = registry.timer("jwt.sign", "type", VerifiedToken.TYPE_ACCESS);
+        signRefreshTimer = registry.timer("jwt.sign", "type", VerifiedToken.TYPE_REFRESH);
+        verifyCachedTimer = registry.timer("jwt.verify", "cache", "hit");
+        verifyParsedTimer = registry.timer("jwt.verify", "cache", "miss");
+        logger.info("JWT signing configured with {}", signatureAlgorithm.getId());
+    }
+    
+    private static MacAlgorithm resolveAlgorithm(SecretKey key) {
+        switch (key.getAlgorithm()) {
+            case "HmacSHA512":
+                return Jwts.SIG.HS512;
+            case "HmacSHA384":
+                return Jwts.SIG.HS384;
+            default:
+                return Jwts.SIG.HS256;
+        }
+    }
+    
+    /**
+     * Verifies the signature and expiry of the token exactly once and returns its claims.
+     * Repeat verifications of the same token are served from the {@link VerifiedTokenCache}.
+     * Revocation is checked on every call, including cache hits.
+     *
+     * @throws JwtException if the token is malformed, tampered with, expired or revoked
+     */
+    public VerifiedToken verify(String token) {
+        long start = System.nanoTime();
+        VerifiedToken verified = verifiedTokenCache.get(token);
+        if (verified == null) {
+            verified = parseAndCache(token);
+            verifyParsedTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        } else {
+            verifyCachedTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+        if (verified.getId() != null && tokenRevocationStore.isRevoked(verified.getId())) {
+            throw new RevokedTokenException("Token has been revoked");
+        }
+        if (verified.getSessionId() != null && tokenRevocationStore.isRevoked(verified.getSessionId())) {
+            throw new RevokedTokenException("Session has been signed out");
+        }
+        return verified;
+    }
+    
+    /**
+     * Revokes the token until its natural expiry, together with its session: every other access or refresh token
+     * carrying the same {@code sid} is rejected as well. Tokens without an id cannot be revoked individually.
+     */
+    public void revoke(VerifiedToken token) {
+        if (token.getSessionId() != null) {
+            // Refreshing keeps the session id, so no token of this session can outlive a fresh refresh token
+            tokenRevocationStore.revoke(token.getSessionId(), Instant.now().plusMillis(refreshExpiration));
+        }
+        if (token.getId() == null || token.getExpiresAt() == null) {
+            logger.warn("Token for {} has no id or expiry and cannot be revoked", token.getSubject());
+            return;
+        }
+        tokenRevocationStore.revoke(token.getId(), token.getExpiresAt());
+    }
+    
+    /**
+     * A fresh session id for the token pair issued at sign-in or sign-up.
+     */
+    public String newSessionId() {
+        return UUID.randomUUID().toString();
+    }
+    
+    private VerifiedToken parseAndCache(String token) {
+        Claims claims = extractAllClaims(token);
+        // Access tokens don't have a "type" claim, so if it's not a refresh token, it's an access token
+        String type = VerifiedToken.TYPE_REFRESH.equals(claims.get("type"))
+                ? VerifiedToken.TYPE_REFRESH
+                : VerifiedToken.TYPE_ACCESS;
+        VerifiedToken verified = new VerifiedToken(
+                claims.getId(),
+                claims.get(SESSION_CLAIM, String.class),
+                claims.getSubject(),
+                type,
+                toInstant(claims.getIssuedAt()),
+                toInstant(claims.getExpiration()),
+                extractRoles(claims)
+        );
+        verifiedTokenCache.put(token, verified);
+        return verified;
+    }
+    
+    private static List<String> extractRoles(Claims claims) {
+        Object roles = claims.get(ROLES_CLAIM);
+        if (!(roles instanceof Collection<?>)) {
+            return null;
+        }
+        List<String> result = new ArrayList<>(((Collection<?>) roles).size());
+        for (Object role : (Collection<?>) roles) {
+            result.add(String.valueOf(role));
+        }
+        return result;
+    }
+    
+    private static Instant toInstant(Date date) {
+        return date != null ? date.toInstant() : null;
     }
     
     public String extractUsername(String token) {
@@ -47,52 +191,68 @@ public class JwtUtil {
     
     private Claims extractAllClaims(String token) {
         try {
-            return Jwts.parser()
-                    .verifyWith(getSigningKey())
-                    .build()
-                    .parseSignedClaims(token)
-                    .getPayload();
+            return parser.parseSignedClaims(token).getPayload();
         } catch (JwtException e) {
             logger.error("Error extracting claims from token: {}", e.getMessage());
             throw e;
         }
     }
     
-    private Boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    public String generateAccessToken(UserDetails userDetails) {
+        return generateAccessToken(userDetails, newSessionId());
     }
     
-    public String generateAccessToken(UserDetails userDetails) {
-        Map<String, Object> claims = new HashMap<>();
-        return createToken(claims, userDetails.getUsername(), expiration);
+    public String generateAccessToken(UserDetails userDetails, String sessionId) {
+        // Authorities travel with the access token so requests can be authenticated without a database lookup
+        List<String> roles = new ArrayList<>(userDetails.getAuthorities().size());
+        for (GrantedAuthority authority : userDetails.getAuthorities()) {
+            roles.add(authority.getAuthority());
+        }
+        return createToken(null, roles, sessionId, userDetails.getUsername(), expiration);
     }
     
     public String generateRefreshToken(UserDetails userDetails) {
-        Map<String, Object> claims = new HashMap<>();
-        claims.put("type", "refresh");
-        return createToken(claims, userDetails.getUsername(), refreshExpiration);
+        return generateRefreshToken(userDetails, newSessionId());
     }
     
-    private String createToken(Map<String, Object> claims, String subject, Long expirationTime) {
-        return Jwts.builder()
-                .claims(claims)
+    public String generateRefreshToken(UserDetails userDetails, String sessionId) {
+        return createToken(VerifiedToken.TYPE_REFRESH, null, sessionId, userDetails.getUsername(), refreshExpiration);
+    }
+    
+    private String createToken(String type, List<String> roles, String sessionId, String subject, Long expirationTime) {
+        long start = System.nanoTime();
+        long now = System.currentTimeMillis();
+        JwtBuilder builder = Jwts.builder();
+        if (type != null) {
+            builder.claim("type", type);
+        }
+        if (roles != null) {
+            builder.claim(ROLES_CLAIM, roles);
+        }
+        if (sessionId != null) {
+            builder.claim(SESSION_CLAIM, sessionId);
+        }
+        String token = builder
+                .id(UUID.randomUUID().toString())
                 .subject(subject)
-                .issuedAt(new Date(System.currentTimeMillis()))
-                .expiration(new Date(System.currentTimeMillis() + expirationTime))
-                .signWith(getSigningKey())
+                .issuedAt(new Date(now))
+                .expiration(new Date(now + expirationTime))
+                .signWith(signingKey, signatureAlgorithm)
                 .compact();
+        Timer timer = VerifiedToken.TYPE_REFRESH.equals(type) ? signRefreshTimer : signAccessTimer;
+        timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return token;
     }
     
     public Boolean validateToken(String token, UserDetails userDetails) {
         try {
-            final String username = extractUsername(token);
-            boolean usernameMatch = username.equals(userDetails.getUsername());
-            boolean notExpired = !isTokenExpired(token);
+            VerifiedToken verified = verify(token);
+            boolean usernameMatch = verified.getSubject().equals(userDetails.getUsername());
             
-            logger.debug("Token validation - Username match: {}, Token expired: {}", usernameMatch, !notExpired);
-            logger.debug("Token username: {}, UserDetails username: {}", username, userDetails.getUsername());
+            logger.debug("Token validation - Username match: {}", usernameMatch);
+            logger.debug("Token username: {}, UserDetails username: {}", verified.getSubject(), userDetails.getUsername());
             
-            return (usernameMatch && notExpired);
+            return usernameMatch;
         } catch (JwtException e) {
             logger.error("Token validation failed: {}", e.getMessage());
             return false;
@@ -101,8 +261,7 @@ public class JwtUtil {
     
     public Boolean isRefreshToken(String token) {
         try {
-            Claims claims = extractAllClaims(token);
-            return "refresh".equals(claims.get("type"));
+            return verify(token).isRefreshToken();
         } catch (JwtException e) {
             logger.error("Error checking token type: {}", e.getMessage());
             return false;
@@ -111,12 +270,10 @@ public class JwtUtil {
     
     public Boolean isAccessToken(String token) {
         try {
-            Claims claims = extractAllClaims(token);
-            // Access tokens don't have a "type" claim, so if it's not a refresh token, it's an access token
-            return !"refresh".equals(claims.get("type"));
+            return verify(token).isAccessToken();
         } catch (JwtException e) {
             logger.error("Error checking token type: {}", e.getMessage());
             return false;
         }
     }
-} 
\ No newline at end of file
+}
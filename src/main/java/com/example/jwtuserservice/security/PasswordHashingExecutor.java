@@ -0,0 +1,135 @@
+package com.example.jwtuserservice.security;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Runs password hashing and verification on a dedicated, bounded pool so that a login storm cannot
+ * occupy every request thread. When the queue is full, work is rejected immediately.
+ */
+@Component
+public class PasswordHashingExecutor {
+    
+    private static final Logger logger = LoggerFactory.getLogger(PasswordHashingExecutor.class);
+    
+    // 0 means one thread per available processor, since hashing is pure CPU work
+    @Value("${auth.hashing.pool-size:0}")
+    private int poolSize;
+    
+    @Value("${auth.hashing.queue-capacity:64}")
+    private int queueCapacity;
+    
+    @Value("${auth.hashing.timeout-ms:5000}")
+    private long timeoutMs;
+    
+    // Falls back to the global registry when created outside a full application context
+    @Autowired(required = false)
+    private MeterRegistry meterRegistry;
+    
+    private ThreadPoolExecutor executor;
+    
+    // Time each task spent queued before a hashing thread picked it up
+    private Timer waitTimer;
+    
+    private final LongAdder rejectedCount = new LongAdder();
+    
+    @PostConstruct
+    public void init() {
+        int threads = poolSize > 0 ? poolSize : Runtime.getRuntime().availableProcessors();
+        executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                new CustomizableThreadFactory("password-hashing-"),
+                new ThreadPoolExecutor.AbortPolicy());
+        MeterRegistry registry = meterRegistry != null ? meterRegistry : Metrics.globalRegistry;
+        waitTimer = Timer.builder("auth.hashing.wait")
+                .description("Time password hashing tasks spend queued before they start")
+                .publishPercentileHistogram()
+                .register(registry);
+        logger.info("Password hashing executor started with {} threads and queue capacity {}", threads, queueCapacity);
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+    
+    /**
+     * Runs the task on the hashing pool and waits for its result on the calling thread.
+     *
+     * @throws PasswordHashingOverloadedException if the queue is full or the task did not finish in time
+     */
+    public <T> T execute(Supplier<T> task) {
+        final long enqueuedAt = System.nanoTime();
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                waitTimer.record(System.nanoTime() - enqueuedAt, TimeUnit.NANOSECONDS);
+                return task.get();
+            });
+        } catch (RejectedExecutionException e) {
+            rejectedCount.increment();
+            logger.warn("Password hashing queue is full ({} queued), rejecting request", executor.getQueue().size());
+            throw new PasswordHashingOverloadedException("Password hashing capacity exceeded", e);
+        }
+        
+        try {
+            return future.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            rejectedCount.increment();
+            throw new PasswordHashingOverloadedException("Password hashing timed out after " + timeoutMs + " ms", e);
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new PasswordHashingOverloadedException("Interrupted while waiting for password hashing", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+    
+    public int getQueueDepth() {
+        return executor.getQueue().size();
+    }
+    
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+    
+    public int getActiveCount() {
+        return executor.getActiveCount();
+    }
+    
+    public long getCompletedCount() {
+        return executor.getCompletedTaskCount();
+    }
+    
+    public long getRejectedCount() {
+        return rejectedCount.sum();
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.jwtuserservice.security;
+
+/**
+ * Thrown when the password hashing executor is saturated and a hash could not be scheduled in time.
+ * Controllers map it to 503 so clients back off instead of piling more work onto the pool.
+ */
+public class PasswordHashingOverloadedException extends RuntimeException {
+    
+    public PasswordHashingOverloadedException(String message) {
+        super(message);
+    }
+    
+    public PasswordHashingOverloadedException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
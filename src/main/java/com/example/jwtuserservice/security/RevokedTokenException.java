@@ -0,0 +1,13 @@
+package com.example.jwtuserservice.security;
+
+import io.jsonwebtoken.JwtException;
+
+/**
+ * Thrown by {@link JwtUtil#verify(String)} for a correctly signed, unexpired token that has been revoked.
+ */
+public class RevokedTokenException extends JwtException {
+    
+    public RevokedTokenException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.jwtuserservice.security;
+
+import java.time.Instant;
+
+/**
+ * Stores the ids ({@code jti}) of tokens that were revoked before their natural expiry.
+ * The default implementation is {@link InMemoryTokenRevocationStore}; a shared backend (e.g. Redis) can be
+ * plugged in by providing another bean and setting {@code jwt.revocation.store} to a value other than {@code memory}.
+ */
+public interface TokenRevocationStore {
+    
+    /**
+     * Revokes the token until {@code expiresAt}; after that the token is rejected by its own expiry anyway.
+     */
+    void revoke(String tokenId, Instant expiresAt);
+    
+    /**
+     * Called on every authenticated request, so implementations must answer without blocking I/O on the common path.
+     */
+    boolean isRevoked(String tokenId);
+}
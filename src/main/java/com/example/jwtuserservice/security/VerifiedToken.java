@@ -0,0 +1,119 @@
+package com.example.jwtuserservice.security;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Immutable view of a token whose signature and expiry have already been checked by {@link JwtUtil#verify(String)}.
+ */
+public final class VerifiedToken {
+    
+    public static final String TYPE_ACCESS = "access";
+    public static final String TYPE_REFRESH = "refresh";
+    
+    private final String id;
+    private final String sessionId;
+    private final String subject;
+    private final String type;
+    private final Instant issuedAt;
+    private final Instant expiresAt;
+    private final List<GrantedAuthority> authorities;
+    
+    public VerifiedToken(String id, String subject, String type, Instant issuedAt, Instant expiresAt) {
+        this(id, subject, type, issuedAt, expiresAt, Collections.emptyList());
+    }
+    
+    public VerifiedToken(String id, String subject, String type, Instant issuedAt, Instant expiresAt,
+                         Collection<String> roles) {
+        this(id, null, subject, type, issuedAt, expiresAt, roles);
+    }
+    
+    public VerifiedToken(String id, String sessionId, String subject, String type, Instant issuedAt, Instant expiresAt,
+                         Collection<String> roles) {
+        this.id = id;
+        this.sessionId = sessionId;
+        this.subject = subject;
+        this.type = type;
+        this.issuedAt = issuedAt;
+        this.expiresAt = expiresAt;
+        this.authorities = toAuthorities(roles);
+    }
+    
+    // Built once per verified token so cached tokens authenticate without any allocation per request
+    private static List<GrantedAuthority> toAuthorities(Collection<String> roles) {
+        if (roles == null || roles.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<GrantedAuthority> authorities = new ArrayList<>(roles.size());
+        for (String role : roles) {
+            authorities.add(new SimpleGrantedAuthority(role));
+        }
+        return Collections.unmodifiableList(authorities);
+    }
+    
+    /**
+     * The {@code jti} claim; {@code null} for tokens issued before token ids were introduced.
+     */
+    public String getId() {
+        return id;
+    }
+    
+    /**
+     * The {@code sid} claim shared by the access and refresh tokens of one sign-in, including tokens obtained by
+     * refreshing; {@code null} for tokens issued before sessions were introduced.
+     */
+    public String getSessionId() {
+        return sessionId;
+    }
+    
+    public String getSubject() {
+        return subject;
+    }
+    
+    public String getType() {
+        return type;
+    }
+    
+    public Instant getIssuedAt() {
+        return issuedAt;
+    }
+    
+    public Instant getExpiresAt() {
+        return expiresAt;
+    }
+    
+    public List<GrantedAuthority> getAuthorities() {
+        return authorities;
+    }
+    
+    public boolean isRefreshToken() {
+        return TYPE_REFRESH.equals(type);
+    }
+    
+    public boolean isAccessToken() {
+        return TYPE_ACCESS.equals(type);
+    }
+    
+    public boolean isExpired(Instant now) {
+        return expiresAt != null && !expiresAt.isAfter(now);
+    }
+    
+    @Override
+    public String toString() {
+        return "VerifiedToken{" +
+                "id='" + id + '\'' +
+                ", sessionId='" + sessionId + '\'' +
+                ", subject='" + subject + '\'' +
+                ", type='" + type + '\'' +
+                ", issuedAt=" + issuedAt +
+                ", expiresAt=" + expiresAt +
+                ", authorities=" + authorities +
+                '}';
+    }
+}
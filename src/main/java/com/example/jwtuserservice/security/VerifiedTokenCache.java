@@ -0,0 +1,170 @@
+package com.example.jwtuserservice.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+
+/**
+ * Bounded cache of already verified tokens, keyed by the SHA-256 of the raw token so the
+ * token strings themselves are never retained. Every entry expires no later than the token's own {@code exp}.
+ */
+@Component
+public class VerifiedTokenCache {
+    
+    private static final Logger logger = LoggerFactory.getLogger(VerifiedTokenCache.class);
+    
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    });
+    
+    @Value("${jwt.cache.enabled:true}")
+    private boolean enabled;
+    
+    @Value("${jwt.cache.max-size:100000}")
+    private long maxSize;
+    
+    @Value("${jwt.cache.max-ttl:${jwt.refresh-expiration}}")
+    private long maxTtlMillis;
+    
+    private Cache<TokenKey, VerifiedToken> cache;
+    
+    @PostConstruct
+    public void init() {
+        cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new TokenExpiry(maxTtlMillis))
+                .recordStats()
+                .build();
+        logger.info("Verified token cache enabled: {}, max size: {}", enabled, maxSize);
+    }
+    
+    public boolean isEnabled() {
+        return enabled;
+    }
+    
+    /**
+     * Returns the cached verification result, or {@code null} if the token has not been seen or has expired.
+     */
+    public VerifiedToken get(String token) {
+        if (!enabled) {
+            return null;
+        }
+        VerifiedToken verified = cache.getIfPresent(TokenKey.of(token));
+        if (verified != null && verified.isExpired(Instant.now())) {
+            return null;
+        }
+        return verified;
+    }
+    
+    public void put(String token, VerifiedToken verified) {
+        if (enabled) {
+            cache.put(TokenKey.of(token), verified);
+        }
+    }
+    
+    public void invalidate(String token) {
+        cache.invalidate(TokenKey.of(token));
+    }
+    
+    public long getHitCount() {
+        return cache.stats().hitCount();
+    }
+    
+    public long getMissCount() {
+        return cache.stats().missCount();
+    }
+    
+    public long getEvictionCount() {
+        return cache.stats().evictionCount();
+    }
+    
+    public CacheStats getStats() {
+        return cache.stats();
+    }
+    
+    public long size() {
+        return cache.estimatedSize();
+    }
+    
+    public Cache<?, ?> getNativeCache() {
+        return cache;
+    }
+    
+    private static final class TokenKey {
+        
+        private final byte[] digest;
+        private final int hash;
+        
+        private TokenKey(byte[] digest) {
+            this.digest = digest;
+            this.hash = Arrays.hashCode(digest);
+        }
+        
+        static TokenKey of(String token) {
+            MessageDigest sha256 = SHA_256.get();
+            sha256.reset();
+            return new TokenKey(sha256.digest(token.getBytes(StandardCharsets.US_ASCII)));
+        }
+        
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof TokenKey)) {
+                return false;
+            }
+            return Arrays.equals(digest, ((TokenKey) o).digest);
+        }
+        
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+    
+    private static final class TokenExpiry implements Expiry<TokenKey, VerifiedToken> {
+        
+        private final long maxTtlNanos;
+        
+        TokenExpiry(long maxTtlMillis) {
+            this.maxTtlNanos = Duration.ofMillis(maxTtlMillis).toNanos();
+        }
+        
+        @Override
+        public long expireAfterCreate(TokenKey key, VerifiedToken value, long currentTime) {
+            if (value.getExpiresAt() == null) {
+                return maxTtlNanos;
+            }
+            long remaining = Duration.between(Instant.now(), value.getExpiresAt()).toNanos();
+            return Math.max(0, Math.min(remaining, maxTtlNanos));
+        }
+        
+        @Override
+        public long expireAfterUpdate(TokenKey key, VerifiedToken value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+        
+        @Override
+        public long expireAfterRead(TokenKey key, VerifiedToken value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -6,17 +6,29 @@ import com.example.jwtuserservice.entity.Login;
 import com.example.jwtuserservice.entity.User;
 import com.example.jwtuserservice.repository.LoginRepository;
 import com.example.jwtuserservice.repository.UserRepository;
+import com.example.jwtuserservice.security.AuthMetrics;
+import com.example.jwtuserservice.security.CachedUserDetailsService;
+import com.example.jwtuserservice.security.CustomUserDetailsService;
 import com.example.jwtuserservice.security.JwtUtil;
+import com.example.jwtuserservice.security.PasswordHashingExecutor;
+import com.example.jwtuserservice.security.PasswordHashingOverloadedException;
+import com.example.jwtuserservice.security.VerifiedToken;
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.annotation.Timed;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.Date;
 
@@ -29,7 +41,7 @@ public class AuthService {
     private AuthenticationManager authenticationManager;
     
     @Autowired
-    private UserDetailsService userDetailsService;
+    private CachedUserDetailsService userDetailsService;
     
     @Autowired
     private JwtUtil jwtUtil;
@@ -37,148 +49,179 @@ public class AuthService {
     @Autowired
     private PasswordEncoder passwordEncoder;
     
+    @Autowired
+    private PasswordHashingExecutor passwordHashingExecutor;
+    
     @Autowired
     private LoginRepository loginRepository;
     
     @Autowired
     private UserRepository userRepository;
     
+    @Autowired
+    private UserChangeNotifier userChangeNotifier;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Autowired
+    private AuthMetrics authMetrics;
+    
     @Value("${jwt.expiration}")
     private Long expiration;
     
+    @Timed(value = "auth.operations", extraTags = {"operation", "authenticate"})
     public AuthResponse authenticate(AuthRequest authRequest) {
-        logger.info("Authenticating user: {}", authRequest.getUsername());
+        logger.debug("Authenticating user: {}", authRequest.getUsername());
         
         try {
-            // Check if user exists first
-            boolean userExists = loginRepository.existsByUsername(authRequest.getUsername());
-            logger.info("User exists in database: {}", userExists);
-            
-            if (!userExists) {
-                logger.error("User not found: {}", authRequest.getUsername());
-                throw new RuntimeException("Invalid username or password");
-            }
-            
-            // Get user details to verify password
-            Login login = loginRepository.findByUsername(authRequest.getUsername()).orElse(null);
-            if (login != null) {
-                logger.info("Found login record for user: {}", authRequest.getUsername());
-                boolean passwordMatches = passwordEncoder.matches(authRequest.getPassword(), login.getPassword());
-                logger.info("Password matches: {}", passwordMatches);
-                
-                if (!passwordMatches) {
-                    logger.error("Password does not match for user: {}", authRequest.getUsername());
-                    throw new RuntimeException("Invalid username or password");
-                }
-            }
-            
-            // Use Spring Security's authentication manager
-            authenticationManager.authenticate(
+            // Single credential fetch (through the user details cache) and a single password hash check.
+            // The provider also hashes against a dummy password for unknown users, so timing does not reveal them.
+            // The hash runs on the dedicated hashing pool instead of the request thread.
+            Authentication authentication = passwordHashingExecutor.execute(() -> authenticationManager.authenticate(
                     new UsernamePasswordAuthenticationToken(authRequest.getUsername(), authRequest.getPassword())
-            );
+            ));
             
-            final UserDetails userDetails = userDetailsService.loadUserByUsername(authRequest.getUsername());
-            final String accessToken = jwtUtil.generateAccessToken(userDetails);
-            final String refreshToken = jwtUtil.generateRefreshToken(userDetails);
+            final UserDetails userDetails = (UserDetails) authentication.getPrincipal();
+            final String sessionId = jwtUtil.newSessionId();
+            final String accessToken = jwtUtil.generateAccessToken(userDetails, sessionId);
+            final String refreshToken = jwtUtil.generateRefreshToken(userDetails, sessionId);
             
-            logger.info("Authentication successful for user: {}", authRequest.getUsername());
+            logger.debug("Authentication successful for user: {}", authRequest.getUsername());
             
             return new AuthResponse(accessToken, refreshToken, expiration);
             
+        } catch (PasswordHashingOverloadedException e) {
+            logger.warn("Authentication rejected for user {}: {}", authRequest.getUsername(), e.getMessage());
+            authMetrics.failure("signin", AuthMetrics.REASON_OVERLOADED);
+            throw e;
+        } catch (AuthenticationException e) {
+            // Expected for bad credentials; no stack trace so failed logins stay cheap to log
+            logger.debug("Authentication failed for user {}: {}", authRequest.getUsername(), e.getMessage());
+            // Unknown users also surface as bad credentials, so the two are not told apart here either
+            authMetrics.failure("signin", e instanceof BadCredentialsException
+                    ? AuthMetrics.REASON_BAD_CREDENTIALS
+                    : AuthMetrics.REASON_ACCOUNT_REJECTED);
+            throw new RuntimeException("Invalid username or password");
         } catch (Exception e) {
             logger.error("Authentication failed for user: {}", authRequest.getUsername(), e);
+            authMetrics.failure("signin", AuthMetrics.REASON_ERROR);
             throw new RuntimeException("Invalid username or password");
         }
     }
     
+    @Timed(value = "auth.operations", extraTags = {"operation", "signup"})
     public AuthResponse signUp(AuthRequest authRequest) {
-        logger.info("Signing up new user: {}", authRequest.getUsername());
+        logger.debug("Signing up new user: {}", authRequest.getUsername());
         
         if (loginRepository.existsByUsername(authRequest.getUsername())) {
             logger.warn("Username already exists: {}", authRequest.getUsername());
+            authMetrics.failure("signup", AuthMetrics.REASON_USERNAME_TAKEN);
             throw new RuntimeException("Username already exists");
         }
         
-        // Create a new user
-        User user = new User();
-        user.setFirstName("New");
-        user.setLastName("User");
-        user.setAge(25);
-        user.setBirthday(new Date());
+        // Hash before touching the database, so a rejected hash (503) leaves nothing behind
+        String passwordHash = passwordHashingExecutor.execute(() -> passwordEncoder.encode(authRequest.getPassword()));
         
-        User savedUser = userRepository.save(user);
-        
-        // Create login credentials
-        Login login = new Login();
-        login.setUsername(authRequest.getUsername());
-        login.setPassword(passwordEncoder.encode(authRequest.getPassword()));
-        login.setUser(savedUser);
+        // User and credentials are created together or not at all
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        Login savedLogin = transaction.execute(status -> {
+            User user = new User();
+            user.setFirstName("New");
+            user.setLastName("User");
+            user.setAge(25);
+            user.setBirthday(new Date());
+            User saved = userRepository.save(user);
+            
+            Login login = new Login();
+            login.setUsername(authRequest.getUsername());
+            login.setPassword(passwordHash);
+            login.setUser(saved);
+            return loginRepository.save(login);
+        });
         
-        loginRepository.save(login);
+        // Listeners only ever see committed users
+        userChangeNotifier.userSaved(UserMapper.toDto(savedLogin.getUser()));
+        userDetailsService.evict(authRequest.getUsername());
         
-        // Generate tokens
-        final UserDetails userDetails = userDetailsService.loadUserByUsername(authRequest.getUsername());
-        final String accessToken = jwtUtil.generateAccessToken(userDetails);
-        final String refreshToken = jwtUtil.generateRefreshToken(userDetails);
+        // Built from what was just written instead of reading it back
+        final UserDetails userDetails = CustomUserDetailsService.toUserDetails(savedLogin);
+        final String sessionId = jwtUtil.newSessionId();
+        final String accessToken = jwtUtil.generateAccessToken(userDetails, sessionId);
+        final String refreshToken = jwtUtil.generateRefreshToken(userDetails, sessionId);
         
-        logger.info("User signed up successfully: {}", authRequest.getUsername());
+        logger.debug("User signed up successfully: {}", authRequest.getUsername());
         
         return new AuthResponse(accessToken, refreshToken, expiration);
     }
     
+    @Timed(value = "auth.operations", extraTags = {"operation", "refresh"})
     public AuthResponse refreshToken(String refreshToken) {
-        logger.info("Refreshing token");
+        logger.debug("Refreshing token");
         
+        VerifiedToken token;
         try {
-            if (!jwtUtil.isRefreshToken(refreshToken)) {
-                throw new RuntimeException("Invalid refresh token");
-            }
-            
-            String username = jwtUtil.extractUsername(refreshToken);
+            token = jwtUtil.verify(refreshToken);
+        } catch (JwtException e) {
+            logger.debug("Token refresh rejected: {}", e.getMessage());
+            authMetrics.failure("refresh", e);
+            throw new RuntimeException("Invalid refresh token");
+        }
+        if (!token.isRefreshToken()) {
+            logger.debug("Token refresh rejected: not a refresh token");
+            authMetrics.failure("refresh", AuthMetrics.REASON_WRONG_TOKEN_TYPE);
+            throw new RuntimeException("Invalid refresh token");
+        }
+        
+        try {
+            String username = token.getSubject();
             UserDetails userDetails = userDetailsService.loadUserByUsername(username);
             
-            if (jwtUtil.validateToken(refreshToken, userDetails)) {
-                final String newAccessToken = jwtUtil.generateAccessToken(userDetails);
-                final String newRefreshToken = jwtUtil.generateRefreshToken(userDetails);
-                
-                logger.info("Token refreshed successfully for user: {}", username);
-                
-                return new AuthResponse(newAccessToken, newRefreshToken, expiration);
-            } else {
-                throw new RuntimeException("Invalid refresh token");
-            }
+            // The new pair stays in the same session, so signing out later revokes it too
+            String sessionId = token.getSessionId() != null ? token.getSessionId() : jwtUtil.newSessionId();
+            final String newAccessToken = jwtUtil.generateAccessToken(userDetails, sessionId);
+            final String newRefreshToken = jwtUtil.generateRefreshToken(userDetails, sessionId);
+            
+            logger.debug("Token refreshed successfully for user: {}", username);
+            
+            return new AuthResponse(newAccessToken, newRefreshToken, expiration);
             
         } catch (Exception e) {
             logger.error("Token refresh failed", e);
+            authMetrics.failure("refresh", AuthMetrics.REASON_ERROR);
             throw new RuntimeException("Invalid refresh token");
         }
     }
     
+    @Timed(value = "auth.operations", extraTags = {"operation", "signout"})
     public void signOut(String accessToken) {
-        logger.info("Signing out user");
+        logger.debug("Signing out user");
         
+        VerifiedToken token;
         try {
-            if (!jwtUtil.isAccessToken(accessToken)) {
-                throw new RuntimeException("Invalid access token");
-            }
-            
-            String username = jwtUtil.extractUsername(accessToken);
-            UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+            token = jwtUtil.verify(accessToken);
+        } catch (JwtException e) {
+            logger.debug("Sign out rejected: {}", e.getMessage());
+            authMetrics.failure("signout", e);
+            throw new RuntimeException("Invalid access token");
+        }
+        if (!token.isAccessToken()) {
+            logger.debug("Sign out rejected: not an access token");
+            authMetrics.failure("signout", AuthMetrics.REASON_WRONG_TOKEN_TYPE);
+            throw new RuntimeException("Invalid access token");
+        }
+        
+        try {
+            // This token and every token of its session, refresh tokens included, are rejected by JwtUtil.verify
+            // from now on
+            jwtUtil.revoke(token);
             
-            if (jwtUtil.validateToken(accessToken, userDetails)) {
-                // In a more sophisticated implementation, you might want to:
-                // 1. Add the token to a blacklist
-                // 2. Store the token in Redis with an expiration
-                // 3. Track active sessions
-                
-                logger.info("User signed out successfully: {}", username);
-            } else {
-                throw new RuntimeException("Invalid access token");
-            }
+            logger.debug("User signed out successfully: {}", token.getSubject());
             
         } catch (Exception e) {
             logger.error("Sign out failed", e);
+            authMetrics.failure("signout", AuthMetrics.REASON_ERROR);
             throw new RuntimeException("Invalid access token");
         }
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,101 @@
+package com.example.jwtuserservice.service;
+
+import com.example.jwtuserservice.dto.UserDto;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * In-process {@link UserCache} backed by Caffeine, whose W-TinyLFU policy keeps frequently read users resident
+ * under skewed traffic. Loads run outside the cache's per-key computation, which holds a monitor and would pin a
+ * virtual thread for the whole database read; a load that raced with an invalidation is simply not stored.
+ */
+@Component
+@ConditionalOnProperty(name = "users.cache.type", havingValue = "caffeine", matchIfMissing = true)
+public class CaffeineUserCache implements UserCache, UserChangeListener {
+    
+    private static final Logger logger = LoggerFactory.getLogger(CaffeineUserCache.class);
+    
+    @Value("${users.cache.max-size:10000}")
+    private long maxSize;
+    
+    // Safety net for writes that bypass the application, e.g. manual SQL
+    @Value("${users.cache.ttl-seconds:600}")
+    private long ttlSeconds;
+    
+    private Cache<Long, UserDto> cache;
+    
+    // Bumped before every invalidation so in-flight loads can tell they may have read stale data
+    private final AtomicLong invalidations = new AtomicLong();
+    
+    @PostConstruct
+    public void init() {
+        cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        logger.info("User cache enabled with max size: {}, ttl: {}s", maxSize, ttlSeconds);
+    }
+    
+    @Override
+    public Optional<UserDto> get(Long id, Function<Long, UserDto> loader) {
+        UserDto cached = cache.getIfPresent(id);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        long generation = invalidations.get();
+        UserDto loaded = loader.apply(id);
+        if (loaded != null) {
+            cache.asMap().compute(id, (key, current) -> invalidations.get() == generation ? loaded : current);
+        }
+        return Optional.ofNullable(loaded);
+    }
+    
+    @Override
+    public void evict(Long id) {
+        invalidations.incrementAndGet();
+        cache.invalidate(id);
+    }
+    
+    @Override
+    public void userSaved(UserDto user) {
+        evict(user.getId());
+    }
+    
+    @Override
+    public void usersDeleted(Collection<Long> ids) {
+        invalidations.incrementAndGet();
+        cache.invalidateAll(ids);
+    }
+    
+    @Override
+    public long getHitCount() {
+        return cache.stats().hitCount();
+    }
+    
+    @Override
+    public long getMissCount() {
+        return cache.stats().missCount();
+    }
+    
+    @Override
+    public double getHitRatio() {
+        return cache.stats().hitRate();
+    }
+    
+    public Cache<?, ?> getNativeCache() {
+        return cache;
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.jwtuserservice.service;
+
+import com.example.jwtuserservice.dto.UserDto;
+import com.example.jwtuserservice.entity.User;
+import com.example.jwtuserservice.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Searches users in the database. Modes:
+ * <ul>
+ *     <li>{@code prefix} (default) - prefix match on the normalized, indexed name columns; a two-word term matches
+ *     first name and last name prefixes together</li>
+ *     <li>{@code fulltext} - MySQL FULLTEXT search with the n-gram parser, for substring-like matching</li>
+ *     <li>{@code contains} - the original {@code LIKE '%term%'} query, which always scans the whole table</li>
+ * </ul>
+ */
+@Component
+@ConditionalOnExpression("'${users.search.mode:prefix}' != 'trigram'")
+public class DatabaseUserSearchEngine implements UserSearchEngine {
+    
+    private static final Logger logger = LoggerFactory.getLogger(DatabaseUserSearchEngine.class);
+    
+    private static final String FULLTEXT_INDEX = "idx_users_name_fulltext";
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Value("${users.search.mode:prefix}")
+    private String mode;
+    
+    @PostConstruct
+    public void init() {
+        logger.info("User search mode: {}", mode);
+        if ("fulltext".equals(mode)) {
+            ensureFullTextIndex();
+        }
+    }
+    
+    @Override
+    public List<UserDto> search(String term, int limit) {
+        switch (mode) {
+            case "fulltext":
+                return userRepository.findByNameFullText(toBooleanModeQuery(term), limit).stream()
+                        .map(UserMapper::toDto)
+                        .collect(Collectors.toList());
+            case "contains":
+                return userRepository.findDtosByFirstNameOrLastNameContainingIgnoreCase(term.trim(), Limit.of(limit));
+            default:
+                return searchByPrefix(User.normalizeName(term), Limit.of(limit));
+        }
+    }
+    
+    private List<UserDto> searchByPrefix(String normalizedTerm, Limit limit) {
+        int space = normalizedTerm.indexOf(' ');
+        if (space > 0) {
+            String first = normalizedTerm.substring(0, space);
+            String last = normalizedTerm.substring(space + 1).trim();
+            return userRepository.findDtosByFirstAndLastNamePrefix(likePrefix(first), likePrefix(last), limit);
+        }
+        return userRepository.findDtosByNamePrefix(likePrefix(normalizedTerm), limit);
+    }
+    
+    private static String likePrefix(String value) {
+        return value.replace("!", "!!").replace("%", "!%").replace("_", "!_") + "%";
+    }
+    
+    // Strips boolean-mode operators so user input is always treated as plain words
+    private static String toBooleanModeQuery(String term) {
+        return term.replaceAll("[+\\-<>()~*\"@]", " ").trim();
+    }
+    
+    private void ensureFullTextIndex() {
+        Integer existing = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM information_schema.statistics " +
+                "WHERE table_schema = DATABASE() AND table_name = 'users' AND index_name = ?",
+                Integer.class, FULLTEXT_INDEX);
+        if (existing != null && existing > 0) {
+            return;
+        }
+        logger.info("Creating FULLTEXT n-gram index {} on users", FULLTEXT_INDEX);
+        jdbcTemplate.execute("CREATE FULLTEXT INDEX " + FULLTEXT_INDEX +
+                " ON users (first_name, last_name) WITH PARSER ngram");
+    }
+}
@@ -0,0 +1,365 @@
+package com.example.jwtuserservice.service;
+
+import com.example.jwtuserservice.dto.UserDto;
+import com.example.jwtuserservice.entity.User;
+import com.example.jwtuserservice.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * In-memory trigram inverted index over normalized first and last names, enabled with
+ * {@code users.search.mode=trigram}. Once built, searches never reach the database; until then (or if the build
+ * failed) they fall back to the {@code LIKE '%term%'} query.
+ *
+ * <p>Each indexed user occupies a slot; posting lists are sorted {@code int} arrays of slots, which stay sorted
+ * because slots are only ever appended. An update tombstones the old slot and appends a new one, and the whole index
+ * is compacted once tombstones make up a quarter of the slots.
+ */
+@Component
+@ConditionalOnProperty(name = "users.search.mode", havingValue = "trigram")
+public class TrigramUserSearchIndex implements UserSearchEngine, UserChangeListener {
+    
+    private static final Logger logger = LoggerFactory.getLogger(TrigramUserSearchIndex.class);
+    
+    // Word boundary marker; lets one- and two-character terms match as prefixes
+    private static final char PAD = '\0';
+    
+    private static final int INITIAL_CAPACITY = 1024;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    
+    private Map<Long, IntList> postings = new HashMap<>();
+    private Map<Long, Integer> slotById = new HashMap<>();
+    private UserDto[] docs = new UserDto[INITIAL_CAPACITY];
+    private String[] firstNames = new String[INITIAL_CAPACITY];
+    private String[] lastNames = new String[INITIAL_CAPACITY];
+    private int nextSlot;
+    private int deadSlots;
+    
+    private volatile boolean ready;
+    
+    /**
+     * Built after the application has started so rows created by startup runners are included.
+     * The server already accepts requests by then, so searches go to the database until the build has finished.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void build() {
+        long start = System.nanoTime();
+        lock.writeLock().lock();
+        try {
+            clear();
+            // Read from the primary: the index is kept current by change notifications from here on, so a
+            // lagging replica could leave it permanently missing rows
+            TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+            transaction.executeWithoutResult(status -> {
+                try (Stream<User> users = userRepository.streamAllOrderedById()) {
+                    users.forEach(user -> {
+                        add(UserMapper.toDto(user));
+                        entityManager.detach(user);
+                    });
+                }
+            });
+            ready = true;
+            logger.info("Trigram user index built with {} users and {} trigrams in {} ms",
+                    slotById.size(), postings.size(), (System.nanoTime() - start) / 1_000_000);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    @Override
+    public List<UserDto> search(String term, int limit) {
+        if (!ready) {
+            return userRepository.findDtosByFirstNameOrLastNameContainingIgnoreCase(term.trim(), Limit.of(limit));
+        }
+        String[] words = User.normalizeName(term).split("\\s+");
+        lock.readLock().lock();
+        try {
+            IntList candidates = null;
+            for (String word : words) {
+                if (word.isEmpty()) {
+                    continue;
+                }
+                for (long trigram : queryTrigrams(word)) {
+                    IntList posting = postings.get(trigram);
+                    if (posting == null) {
+                        return new ArrayList<>();
+                    }
+                    candidates = candidates == null ? posting : candidates.intersect(posting);
+                    if (candidates.size == 0) {
+                        return new ArrayList<>();
+                    }
+                }
+            }
+            return candidates == null ? new ArrayList<>() : rank(candidates, words, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    @Override
+    public void userSaved(UserDto user) {
+        lock.writeLock().lock();
+        try {
+            remove(user.getId());
+            add(user);
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    @Override
+    public void usersDeleted(Collection<Long> ids) {
+        lock.writeLock().lock();
+        try {
+            for (Long id : ids) {
+                remove(id);
+            }
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return slotById.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    private List<UserDto> rank(IntList candidates, String[] words, int limit) {
+        // Min-heap on score keeps only the best `limit` matches
+        Comparator<Match> order = Comparator.comparingInt((Match m) -> m.score)
+                .thenComparing(m -> lastNames[m.slot], Comparator.reverseOrder())
+                .thenComparing(m -> firstNames[m.slot], Comparator.reverseOrder());
+        PriorityQueue<Match> best = new PriorityQueue<>(order);
+        for (int i = 0; i < candidates.size; i++) {
+            int slot = candidates.values[i];
+            if (docs[slot] == null) {
+                continue;
+            }
+            int score = score(slot, words);
+            if (score == 0) {
+                continue;
+            }
+            best.add(new Match(slot, score));
+            if (best.size() > limit) {
+                best.poll();
+            }
+        }
+        
+        UserDto[] ranked = new UserDto[best.size()];
+        for (int i = ranked.length - 1; i >= 0; i--) {
+            ranked[i] = docs[best.poll().slot];
+        }
+        return new ArrayList<>(Arrays.asList(ranked));
+    }
+    
+    // Trigrams can produce false positives, so every word is re-checked: exact name 3, prefix 2, substring 1
+    private int score(int slot, String[] words) {
+        int total = 0;
+        for (String word : words) {
+            if (word.isEmpty()) {
+                continue;
+            }
+            int wordScore = Math.max(matchScore(firstNames[slot], word), matchScore(lastNames[slot], word));
+            if (wordScore == 0) {
+                return 0;
+            }
+            total += wordScore;
+        }
+        return total;
+    }
+    
+    private static int matchScore(String name, String word) {
+        if (name == null) {
+            return 0;
+        }
+        if (name.equals(word)) {
+            return 3;
+        }
+        if (name.startsWith(word)) {
+            return 2;
+        }
+        if (word.length() >= 3 && name.contains(word)) {
+            return 1;
+        }
+        return 0;
+    }
+    
+    private void add(UserDto user) {
+        int slot = nextSlot++;
+        ensureCapacity(slot + 1);
+        docs[slot] = user;
+        firstNames[slot] = User.normalizeName(user.getFirstName());
+        lastNames[slot] = User.normalizeName(user.getLastName());
+        slotById.put(user.getId(), slot);
+        indexName(firstNames[slot], slot);
+        indexName(lastNames[slot], slot);
+    }
+    
+    private void remove(Long id) {
+        Integer slot = slotById.remove(id);
+        if (slot != null) {
+            docs[slot] = null;
+            deadSlots++;
+        }
+    }
+    
+    private void indexName(String name, int slot) {
+        if (name == null || name.isEmpty()) {
+            return;
+        }
+        String padded = "" + PAD + PAD + name + PAD;
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            long trigram = pack(padded.charAt(i), padded.charAt(i + 1), padded.charAt(i + 2));
+            postings.computeIfAbsent(trigram, key -> new IntList()).addIfAbsentAtEnd(slot);
+        }
+    }
+    
+    private static long[] queryTrigrams(String word) {
+        if (word.length() == 1) {
+            return new long[]{pack(PAD, PAD, word.charAt(0))};
+        }
+        if (word.length() == 2) {
+            return new long[]{pack(PAD, word.charAt(0), word.charAt(1))};
+        }
+        long[] trigrams = new long[word.length() - 2];
+        for (int i = 0; i < trigrams.length; i++) {
+            trigrams[i] = pack(word.charAt(i), word.charAt(i + 1), word.charAt(i + 2));
+        }
+        return trigrams;
+    }
+    
+    private static long pack(char a, char b, char c) {
+        return ((long) a << 32) | ((long) b << 16) | c;
+    }
+    
+    private void compactIfNeeded() {
+        if (deadSlots < INITIAL_CAPACITY || deadSlots * 4 < nextSlot) {
+            return;
+        }
+        List<UserDto> live = new ArrayList<>(slotById.size());
+        for (int slot = 0; slot < nextSlot; slot++) {
+            if (docs[slot] != null) {
+                live.add(docs[slot]);
+            }
+        }
+        clear();
+        live.forEach(this::add);
+        logger.debug("Compacted trigram user index to {} users", live.size());
+    }
+    
+    private void clear() {
+        postings = new HashMap<>();
+        slotById = new HashMap<>();
+        docs = new UserDto[INITIAL_CAPACITY];
+        firstNames = new String[INITIAL_CAPACITY];
+        lastNames = new String[INITIAL_CAPACITY];
+        nextSlot = 0;
+        deadSlots = 0;
+    }
+    
+    private void ensureCapacity(int capacity) {
+        if (capacity > docs.length) {
+            int newLength = Math.max(capacity, docs.length * 2);
+            docs = Arrays.copyOf(docs, newLength);
+            firstNames = Arrays.copyOf(firstNames, newLength);
+            lastNames = Arrays.copyOf(lastNames, newLength);
+        }
+    }
+    
+    private static final class Match {
+        
+        final int slot;
+        final int score;
+        
+        Match(int slot, int score) {
+            this.slot = slot;
+            this.score = score;
+        }
+    }
+    
+    /**
+     * Growable, ascending array of slots.
+     */
+    private static final class IntList {
+        
+        int[] values;
+        int size;
+        
+        IntList() {
+            this(new int[4], 0);
+        }
+        
+        IntList(int[] values, int size) {
+            this.values = values;
+            this.size = size;
+        }
+        
+        void addIfAbsentAtEnd(int value) {
+            if (size > 0 && values[size - 1] == value) {
+                return;
+            }
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+        
+        IntList intersect(IntList other) {
+            int[] result = new int[Math.min(size, other.size)];
+            int n = 0;
+            int i = 0;
+            int j = 0;
+            while (i < size && j < other.size) {
+                int a = values[i];
+                int b = other.values[j];
+                if (a == b) {
+                    result[n++] = a;
+                    i++;
+                    j++;
+                } else if (a < b) {
+                    i++;
+                } else {
+                    j++;
+                }
+            }
+            return new IntList(result, n);
+        }
+    }
+}
@@ -0,0 +1,214 @@
+package com.example.jwtuserservice.service;
+
+import com.example.jwtuserservice.dto.BatchRowResult;
+import com.example.jwtuserservice.dto.UserDto;
+import com.example.jwtuserservice.entity.User;
+import com.example.jwtuserservice.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk create and update of users. Rows are consumed from an iterator (typically a streaming JSON parser), grouped
+ * into chunks of {@code users.batch.chunk-size} and each chunk is written in its own transaction so Hibernate can
+ * send the statements as JDBC batches. A failing chunk is rolled back and reported without stopping the import.
+ */
+@Service
+public class UserBatchService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(UserBatchService.class);
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private UserChangeNotifier userChangeNotifier;
+    
+    @Autowired
+    private Validator validator;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    @Value("${users.batch.chunk-size:500}")
+    private int chunkSize;
+    
+    public List<BatchRowResult> createUsers(Iterator<UserDto> rows) {
+        return process(rows, false);
+    }
+    
+    public List<BatchRowResult> updateUsers(Iterator<UserDto> rows) {
+        return process(rows, true);
+    }
+    
+    private List<BatchRowResult> process(Iterator<UserDto> rows, boolean update) {
+        String operation = update ? "update" : "create";
+        logger.debug("Starting batch {} of users with chunk size {}", operation, chunkSize);
+        long start = System.nanoTime();
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        List<BatchRowResult> results = new ArrayList<>();
+        List<IndexedRow> chunk = new ArrayList<>(chunkSize);
+        int index = 0;
+        
+        while (true) {
+            UserDto row;
+            try {
+                if (!rows.hasNext()) {
+                    break;
+                }
+                row = rows.next();
+            } catch (RuntimeException e) {
+                // The input cannot be resumed after a parse error; keep what was read so far and stop here
+                logger.warn("Malformed batch input at row {}: {}", index, e.getMessage());
+                results.add(BatchRowResult.failure(index, null, BatchRowResult.Status.INVALID,
+                        "Malformed row: " + e.getMessage()));
+                break;
+            }
+            String violation = validate(row, update);
+            if (violation != null) {
+                results.add(BatchRowResult.failure(index, row.getId(), BatchRowResult.Status.INVALID, violation));
+            } else {
+                chunk.add(new IndexedRow(index, row));
+            }
+            index++;
+            
+            if (chunk.size() == chunkSize) {
+                results.addAll(writeChunk(transaction, chunk, update));
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            results.addAll(writeChunk(transaction, chunk, update));
+        }
+        
+        results.sort((a, b) -> Integer.compare(a.getIndex(), b.getIndex()));
+        long failed = results.stream().filter(result -> result.getError() != null).count();
+        logger.info("Batch {} of {} users finished in {} ms: {} succeeded, {} failed", operation, results.size(),
+                (System.nanoTime() - start) / 1_000_000, results.size() - failed, failed);
+        return results;
+    }
+    
+    private List<BatchRowResult> writeChunk(TransactionTemplate transaction, List<IndexedRow> chunk, boolean update) {
+        List<UserDto> saved = new ArrayList<>(chunk.size());
+        try {
+            List<BatchRowResult> results = transaction.execute(status ->
+                    update ? updateChunk(chunk, saved) : insertChunk(chunk, saved));
+            // Derived state is only updated once the chunk is committed
+            saved.forEach(userChangeNotifier::userSaved);
+            logger.debug("Wrote chunk of {} users starting at row {}", chunk.size(), chunk.get(0).index);
+            return results;
+        } catch (RuntimeException e) {
+            logger.error("Batch chunk of {} users starting at row {} failed", chunk.size(), chunk.get(0).index, e);
+            List<BatchRowResult> failed = new ArrayList<>(chunk.size());
+            for (IndexedRow row : chunk) {
+                failed.add(BatchRowResult.failure(row.index, update ? row.user.getId() : null,
+                        BatchRowResult.Status.FAILED, e.getMessage()));
+            }
+            return failed;
+        }
+    }
+    
+    private List<BatchRowResult> insertChunk(List<IndexedRow> chunk, List<UserDto> saved) {
+        List<User> users = new ArrayList<>(chunk.size());
+        for (IndexedRow row : chunk) {
+            User user = UserMapper.toEntity(row.user);
+            user.setId(null);
+            users.add(user);
+        }
+        List<User> persisted = userRepository.saveAll(users);
+        entityManager.flush();
+        entityManager.clear();
+        
+        List<BatchRowResult> results = new ArrayList<>(chunk.size());
+        for (int i = 0; i < chunk.size(); i++) {
+            User user = persisted.get(i);
+            saved.add(UserMapper.toDto(user));
+            results.add(BatchRowResult.success(chunk.get(i).index, user.getId(), BatchRowResult.Status.CREATED));
+        }
+        return results;
+    }
+    
+    private List<BatchRowResult> updateChunk(List<IndexedRow> chunk, List<UserDto> saved) {
+        // One SELECT for the whole chunk, then batched UPDATEs on flush
+        List<Long> ids = chunk.stream().map(row -> row.user.getId()).collect(Collectors.toList());
+        Map<Long, User> existing = userRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+        
+        List<BatchRowResult> results = new ArrayList<>(chunk.size());
+        List<User> updated = new ArrayList<>(chunk.size());
+        for (IndexedRow row : chunk) {
+            User user = existing.get(row.user.getId());
+            if (user == null) {
+                results.add(BatchRowResult.failure(row.index, row.user.getId(), BatchRowResult.Status.NOT_FOUND,
+                        "User not found"));
+                continue;
+            }
+            // Same optimistic check as a single PUT: a row that carries a version only applies to that version
+            if (row.user.getVersion() != null && !row.user.getVersion().equals(user.getVersion())) {
+                results.add(BatchRowResult.failure(row.index, row.user.getId(), BatchRowResult.Status.CONFLICT,
+                        "Expected version " + row.user.getVersion() + " but found " + user.getVersion()));
+                continue;
+            }
+            user.setFirstName(row.user.getFirstName());
+            user.setLastName(row.user.getLastName());
+            user.setAge(row.user.getAge());
+            user.setBirthday(row.user.getBirthday());
+            updated.add(user);
+            results.add(BatchRowResult.success(row.index, user.getId(), BatchRowResult.Status.UPDATED));
+        }
+        entityManager.flush();
+        // Mapped after the flush so the incremented versions are included
+        for (User user : updated) {
+            saved.add(UserMapper.toDto(user));
+        }
+        entityManager.clear();
+        return results;
+    }
+    
+    private String validate(UserDto row, boolean update) {
+        if (row == null) {
+            return "Row is null";
+        }
+        if (update && row.getId() == null) {
+            return "id is required";
+        }
+        Set<ConstraintViolation<UserDto>> violations = validator.validate(row);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                .sorted()
+                .collect(Collectors.joining(", "));
+    }
+    
+    private static final class IndexedRow {
+        
+        final int index;
+        final UserDto user;
+        
+        IndexedRow(int index, UserDto user) {
+            this.index = index;
+            this.user = user;
+        }
+    }
+}
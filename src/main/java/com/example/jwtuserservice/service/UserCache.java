@@ -0,0 +1,28 @@
+package com.example.jwtuserservice.service;
+
+import com.example.jwtuserservice.dto.UserDto;
+
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Read-through cache of users by id. The default is the in-process {@link CaffeineUserCache}; a distributed
+ * implementation can be plugged in by providing another bean and setting {@code users.cache.type} to a value other
+ * than {@code caffeine}. Implementations that also implement {@link UserChangeListener} are invalidated on writes.
+ */
+public interface UserCache {
+    
+    /**
+     * Returns the cached user, loading it with {@code loader} on a miss. A {@code null} result from the loader means
+     * "not found" and is not cached.
+     */
+    Optional<UserDto> get(Long id, Function<Long, UserDto> loader);
+    
+    void evict(Long id);
+    
+    long getHitCount();
+    
+    long getMissCount();
+    
+    double getHitRatio();
+}
@@ -0,0 +1,16 @@
+package com.example.jwtuserservice.service;
+
+import com.example.jwtuserservice.dto.UserDto;
+
+import java.util.Collection;
+
+/**
+ * Callback for components that keep derived state about users (indexes, caches) and must follow every write.
+ * Listeners are invoked by {@link UserChangeNotifier} after the change has been saved.
+ */
+public interface UserChangeListener {
+    
+    void userSaved(UserDto user);
+    
+    void usersDeleted(Collection<Long> ids);
+}
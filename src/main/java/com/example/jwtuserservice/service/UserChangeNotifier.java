@@ -0,0 +1,53 @@
+package com.example.jwtuserservice.service;
+
+import com.example.jwtuserservice.dto.UserDto;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Fans out user writes to every registered {@link UserChangeListener}. All code paths that insert, update or delete
+ * {@code users} rows after startup must go through here. The {@link UserTableVersion} is bumped only after every
+ * listener has run: a client that sees the new table ETag must also get the updated cache and search index.
+ */
+@Component
+public class UserChangeNotifier {
+    
+    private static final Logger logger = LoggerFactory.getLogger(UserChangeNotifier.class);
+    
+    @Autowired(required = false)
+    private List<UserChangeListener> listeners = Collections.emptyList();
+    
+    @Autowired
+    private UserTableVersion tableVersion;
+    
+    public void userSaved(UserDto user) {
+        for (UserChangeListener listener : listeners) {
+            try {
+                listener.userSaved(user);
+            } catch (RuntimeException e) {
+                logger.error("User change listener {} failed for user {}", listener.getClass().getSimpleName(), user.getId(), e);
+            }
+        }
+        tableVersion.bump();
+    }
+    
+    public void usersDeleted(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        for (UserChangeListener listener : listeners) {
+            try {
+                listener.usersDeleted(ids);
+            } catch (RuntimeException e) {
+                logger.error("User change listener {} failed for {} deleted users", listener.getClass().getSimpleName(), ids.size(), e);
+            }
+        }
+        tableVersion.bump();
+    }
+}
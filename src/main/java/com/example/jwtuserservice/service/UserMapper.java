@@ -0,0 +1,33 @@
+package com.example.jwtuserservice.service;
+
+import com.example.jwtuserservice.dto.UserDto;
+import com.example.jwtuserservice.entity.User;
+
+/**
+ * Conversions between {@link User} entities and {@link UserDto}s, shared by the user service and search engines.
+ */
+public final class UserMapper {
+    
+    private UserMapper() {}
+    
+    public static UserDto toDto(User user) {
+        return new UserDto(
+                user.getId(),
+                user.getFirstName(),
+                user.getLastName(),
+                user.getAge(),
+                user.getBirthday(),
+                user.getVersion()
+        );
+    }
+    
+    public static User toEntity(UserDto userDto) {
+        User user = new User();
+        user.setId(userDto.getId());
+        user.setFirstName(userDto.getFirstName());
+        user.setLastName(userDto.getLastName());
+        user.setAge(userDto.getAge());
+        user.setBirthday(userDto.getBirthday());
+        return user;
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.jwtuserservice.service;
+
+import com.example.jwtuserservice.dto.UserDto;
+
+import java.util.List;
+
+/**
+ * Strategy behind {@link UserService#searchUsers(String)}. The active implementation is chosen with
+ * {@code users.search.mode}.
+ */
+public interface UserSearchEngine {
+    
+    /**
+     * @param term  a non-blank search term as typed by the client
+     * @param limit maximum number of results, best matches first where the engine ranks results
+     */
+    List<UserDto> search(String term, int limit);
+}
@@ -2,15 +2,29 @@ package com.example.jwtuserservice.service;
 
 import com.example.jwtuserservice.dto.UserDto;
 import com.example.jwtuserservice.entity.User;
+import com.example.jwtuserservice.repository.LoginRepository;
 import com.example.jwtuserservice.repository.UserRepository;
+import com.example.jwtuserservice.security.CachedUserDetailsService;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 public class UserService {
@@ -20,94 +34,200 @@ public class UserService {
     @Autowired
     private UserRepository userRepository;
     
+    @Autowired
+    private LoginRepository loginRepository;
+    
+    @Autowired
+    private CachedUserDetailsService userDetailsService;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    @Autowired
+    private UserSearchEngine userSearchEngine;
+    
+    @Autowired
+    private UserChangeNotifier userChangeNotifier;
+    
+    @Autowired
+    private UserCache userCache;
+    
+    @Value("${users.search.max-results:100}")
+    private int maxSearchResults;
+    
+    @Value("${users.delete.chunk-size:1000}")
+    private int deleteChunkSize;
+    
+    @Timed(value = "users.operations", extraTags = {"operation", "list"})
     public List<UserDto> getAllUsers() {
-        logger.info("Fetching all users");
-        return userRepository.findAll().stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+        logger.debug("Fetching all users");
+        return userRepository.findAllDtos();
+    }
+    
+    /**
+     * Returns up to {@code limit} users with an id greater than {@code afterId}, ordered by id.
+     * Pass the id of the last returned user as the next {@code afterId}.
+     */
+    @Timed(value = "users.operations", extraTags = {"operation", "page"})
+    public List<UserDto> getUsersPage(Long afterId, int limit) {
+        logger.debug("Fetching users page after id: {}, limit: {}", afterId, limit);
+        return userRepository.findDtosAfterId(afterId != null ? afterId : 0L, Limit.of(limit));
     }
     
+    /**
+     * Streams every user to {@code consumer} in id order without materializing the table.
+     * Entities are detached as soon as they are mapped so the persistence context stays empty.
+     *
+     * @return the number of users streamed
+     */
+    @Transactional(readOnly = true)
+    public long streamUsers(Consumer<UserDto> consumer) {
+        logger.debug("Streaming all users");
+        long count = 0;
+        try (Stream<User> users = userRepository.streamAllOrderedById()) {
+            for (User user : (Iterable<User>) users::iterator) {
+                consumer.accept(UserMapper.toDto(user));
+                entityManager.detach(user);
+                count++;
+            }
+        }
+        logger.debug("Streamed {} users", count);
+        return count;
+    }
+    
+    @Timed(value = "users.operations", extraTags = {"operation", "get"})
     public Optional<UserDto> getUserById(Long id) {
-        logger.info("Fetching user by id: {}", id);
-        return userRepository.findById(id)
-                .map(this::convertToDto);
+        logger.debug("Fetching user by id: {}", id);
+        // Loaded in a read-write transaction so it is served by the primary: a cached row outlives any replica lag
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        return userCache.get(id, key -> transaction.execute(status -> userRepository.findDtoById(key).orElse(null)));
     }
     
     public List<UserDto> searchUsers(String searchTerm) {
-        logger.info("Searching users with term: {}", searchTerm);
+        return searchUsers(searchTerm, null);
+    }
+    
+    /**
+     * @param limit maximum number of matches; {@code null} or anything above {@code users.search.max-results}
+     *              is capped to that setting
+     */
+    @Timed(value = "users.operations", extraTags = {"operation", "search"})
+    public List<UserDto> searchUsers(String searchTerm, Integer limit) {
+        logger.debug("Searching users with term: {}", searchTerm);
         if (searchTerm == null || searchTerm.trim().isEmpty()) {
             return getAllUsers();
         }
         
-        return userRepository.findByFirstNameOrLastNameContainingIgnoreCase(searchTerm.trim())
-                .stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+        int cappedLimit = limit == null ? maxSearchResults : Math.max(1, Math.min(limit, maxSearchResults));
+        return userSearchEngine.search(searchTerm, cappedLimit);
     }
     
+    @Timed(value = "users.operations", extraTags = {"operation", "create"})
     public UserDto createUser(UserDto userDto) {
-        logger.info("Creating new user: {}", userDto.getFirstName() + " " + userDto.getLastName());
-        User user = convertToEntity(userDto);
+        logger.debug("Creating new user: {}", userDto.getFirstName() + " " + userDto.getLastName());
+        User user = UserMapper.toEntity(userDto);
+        // Ids are always generated; a client-supplied id would make the entity look detached
+        user.setId(null);
         User savedUser = userRepository.save(user);
-        logger.info("User created successfully with id: {}", savedUser.getId());
-        return convertToDto(savedUser);
+        logger.debug("User created successfully with id: {}", savedUser.getId());
+        UserDto createdUser = UserMapper.toDto(savedUser);
+        userChangeNotifier.userSaved(createdUser);
+        return createdUser;
     }
     
+    /**
+     * Updates the user with a single {@code UPDATE ... WHERE id = ?} statement; "not found" is detected from the row
+     * count. When {@code userDto} carries a version, the update only applies if the stored version still matches;
+     * without one the update is unconditional and the new version is read back so the result always carries it.
+     *
+     * @throws OptimisticLockingFailureException if the user exists but its version no longer matches
+     */
+    @Timed(value = "users.operations", extraTags = {"operation", "update"})
     public Optional<UserDto> updateUser(Long id, UserDto userDto) {
-        logger.info("Updating user with id: {}", id);
-        return userRepository.findById(id)
-                .map(existingUser -> {
-                    existingUser.setFirstName(userDto.getFirstName());
-                    existingUser.setLastName(userDto.getLastName());
-                    existingUser.setAge(userDto.getAge());
-                    existingUser.setBirthday(userDto.getBirthday());
-                    
-                    User updatedUser = userRepository.save(existingUser);
-                    logger.info("User updated successfully: {}", updatedUser.getId());
-                    return convertToDto(updatedUser);
-                });
+        logger.debug("Updating user with id: {}", id);
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        // Without a version the caller can't know what the row was bumped to, so read it back in the same transaction
+        Long newVersion = transaction.execute(status -> {
+            int updated = userRepository.updateById(
+                    id,
+                    userDto.getFirstName(),
+                    userDto.getLastName(),
+                    userDto.getAge(),
+                    userDto.getBirthday(),
+                    User.normalizeName(userDto.getFirstName()),
+                    User.normalizeName(userDto.getLastName()),
+                    userDto.getVersion()
+            );
+            if (updated == 0) {
+                return null;
+            }
+            return userDto.getVersion() != null
+                    ? userDto.getVersion() + 1
+                    : userRepository.findVersionById(id).orElse(null);
+        });
+        
+        if (newVersion == null) {
+            // Only the failure path pays for a second query, to tell a stale version from a missing row
+            if (userDto.getVersion() != null && userRepository.existsById(id)) {
+                logger.warn("Version conflict updating user {}: expected version {}", id, userDto.getVersion());
+                throw new OptimisticLockingFailureException("User " + id + " was modified concurrently");
+            }
+            return Optional.empty();
+        }
+        
+        UserDto result = new UserDto(id, userDto.getFirstName(), userDto.getLastName(),
+                userDto.getAge(), userDto.getBirthday(), newVersion);
+        userChangeNotifier.userSaved(result);
+        logger.debug("User updated successfully: {}", id);
+        return Optional.of(result);
     }
     
+    @Timed(value = "users.operations", extraTags = {"operation", "delete"})
     public boolean deleteUser(Long id) {
-        logger.info("Deleting user with id: {}", id);
-        if (userRepository.existsById(id)) {
-            userRepository.deleteById(id);
-            logger.info("User deleted successfully: {}", id);
+        logger.debug("Deleting user with id: {}", id);
+        if (deleteUsers(List.of(id)) > 0) {
+            logger.debug("User deleted successfully: {}", id);
             return true;
         }
         logger.warn("User not found for deletion: {}", id);
         return false;
     }
     
-    public boolean deleteUsers(List<Long> ids) {
-        logger.info("Deleting multiple users: {}", ids);
-        List<User> usersToDelete = userRepository.findAllById(ids);
-        if (!usersToDelete.isEmpty()) {
-            userRepository.deleteAll(usersToDelete);
-            logger.info("Successfully deleted {} users", usersToDelete.size());
-            return true;
+    /**
+     * Deletes the users and their login rows with chunked {@code DELETE ... WHERE ... IN (...)} statements in a single
+     * transaction, without loading any entities.
+     *
+     * @return the number of users deleted
+     */
+    @Timed(value = "users.operations", extraTags = {"operation", "delete_batch"})
+    public int deleteUsers(List<Long> ids) {
+        logger.debug("Deleting {} users", ids.size());
+        List<Long> distinctIds = new ArrayList<>(new LinkedHashSet<>(ids));
+        List<String> usernames = new ArrayList<>();
+        
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        Integer deleted = transaction.execute(status -> {
+            int count = 0;
+            for (int from = 0; from < distinctIds.size(); from += deleteChunkSize) {
+                List<Long> chunk = distinctIds.subList(from, Math.min(from + deleteChunkSize, distinctIds.size()));
+                // Dependent login rows go first because of the user_id foreign key
+                usernames.addAll(loginRepository.findUsernamesByUserIds(chunk));
+                loginRepository.deleteByUserIds(chunk);
+                count += userRepository.deleteByIds(chunk);
+            }
+            return count;
+        });
+        
+        if (deleted != null && deleted > 0) {
+            userDetailsService.evictAll(usernames);
+            userChangeNotifier.usersDeleted(distinctIds);
+            logger.debug("Successfully deleted {} users and {} logins", deleted, usernames.size());
+            return deleted;
         }
         logger.warn("No users found for deletion");
-        return false;
-    }
-    
-    private UserDto convertToDto(User user) {
-        return new UserDto(
-                user.getId(),
-                user.getFirstName(),
-                user.getLastName(),
-                user.getAge(),
-                user.getBirthday()
-        );
-    }
-    
-    private User convertToEntity(UserDto userDto) {
-        User user = new User();
-        user.setId(userDto.getId());
-        user.setFirstName(userDto.getFirstName());
-        user.setLastName(userDto.getLastName());
-        user.setAge(userDto.getAge());
-        user.setBirthday(userDto.getBirthday());
-        return user;
+        return 0;
     }
-} 
\ No newline at end of file
+}
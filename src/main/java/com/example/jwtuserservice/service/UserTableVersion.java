@@ -0,0 +1,39 @@
+package com.example.jwtuserservice.service;
+
+import com.example.jwtuserservice.dto.UserDto;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cheap version stamp for the whole {@code users} table, bumped by {@link UserChangeNotifier} after every committed
+ * write once all listeners have applied it, so a new tag is never paired with a stale cache or index. Collection
+ * responses (list, page, search) use it as their ETag so unchanged reads can be answered with 304 without querying
+ * or serializing anything.
+ *
+ * <p>The stamp is process-local: the start time makes tags from different instances or restarts differ, but writes
+ * made through another instance are not seen here. For the same reason it is not sent when collections are read
+ * from replicas, which can trail the primary.
+ */
+@Component
+public class UserTableVersion {
+    
+    private final long epoch = System.currentTimeMillis();
+    
+    private final AtomicLong counter = new AtomicLong();
+    
+    void bump() {
+        counter.incrementAndGet();
+    }
+    
+    public String etag() {
+        return "\"users-" + Long.toHexString(epoch) + "-" + counter.get() + "\"";
+    }
+    
+    /**
+     * ETag of a single user, derived from its row version.
+     */
+    public static String etag(UserDto user) {
+        return "\"user-" + user.getId() + "-v" + user.getVersion() + "\"";
+    }
+}
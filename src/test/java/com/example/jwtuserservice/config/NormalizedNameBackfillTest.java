@@ -0,0 +1,50 @@
+package com.example.jwtuserservice.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+// Rolled back, so the raw rows never show up in other tests' pages
+@Transactional
+class NormalizedNameBackfillTest {
+    
+    @Autowired
+    private NormalizedNameBackfill backfill;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Test
+    void fillsMissingNamesWithTheSameNormalizationAsTheEntity() {
+        insertWithoutNormalizedNames(900_001L, "José", "Zoë");
+        insertWithoutNormalizedNames(900_002L, " Björn ", "RENÉE");
+        
+        assertThat(backfill.backfill()).isEqualTo(2);
+        
+        assertThat(normalizedNames(900_001L))
+                .containsEntry("first_name_norm", "jose")
+                .containsEntry("last_name_norm", "zoe");
+        assertThat(normalizedNames(900_002L))
+                .containsEntry("first_name_norm", "bjorn")
+                .containsEntry("last_name_norm", "renee");
+        assertThat(backfill.backfill()).isZero();
+    }
+    
+    private void insertWithoutNormalizedNames(long id, String firstName, String lastName) {
+        jdbcTemplate.update("INSERT INTO users (id, first_name, last_name, version) VALUES (?, ?, ?, 0)",
+                id, firstName, lastName);
+    }
+    
+    private Map<String, Object> normalizedNames(long id) {
+        return jdbcTemplate.queryForMap("SELECT first_name_norm, last_name_norm FROM users WHERE id = ?", id);
+    }
+}
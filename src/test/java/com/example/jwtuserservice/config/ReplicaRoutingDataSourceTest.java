@@ -0,0 +1,106 @@
+package com.example.jwtuserservice.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ReplicaRoutingDataSourceTest {
+    
+    private final DataSource primary = mock(DataSource.class);
+    private final DataSource replica0 = mock(DataSource.class);
+    private final DataSource replica1 = mock(DataSource.class);
+    
+    private final Connection primaryConnection = mock(Connection.class);
+    private final Connection replica0Connection = mock(Connection.class);
+    private final Connection replica1Connection = mock(Connection.class);
+    
+    @BeforeEach
+    void connections() throws Exception {
+        when(primary.getConnection()).thenReturn(primaryConnection);
+        when(replica0.getConnection()).thenReturn(replica0Connection);
+        when(replica1.getConnection()).thenReturn(replica1Connection);
+    }
+    
+    @AfterEach
+    void clearTransactionState() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+    }
+    
+    @Test
+    void readWriteWorkGoesToThePrimary() throws Exception {
+        ReplicaRoutingDataSource routing = routing(true);
+        
+        assertThat(routing.getConnection()).isSameAs(primaryConnection);
+    }
+    
+    @Test
+    void readOnlyTransactionsAlternateBetweenReplicas() throws Exception {
+        ReplicaRoutingDataSource routing = routing(true);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        
+        assertThat(List.of(routing.getConnection(), routing.getConnection(), routing.getConnection()))
+                .containsExactly(replica0Connection, replica1Connection, replica0Connection);
+    }
+    
+    @Test
+    void unhealthyReplicasAreSkipped() throws Exception {
+        ReplicaRoutingDataSource routing = routing(true);
+        routing.setHealthyReplicas(List.of(1));
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        
+        assertThat(List.of(routing.getConnection(), routing.getConnection()))
+                .containsOnly(replica1Connection);
+    }
+    
+    @Test
+    void noHealthyReplicaFallsBackToThePrimary() throws Exception {
+        ReplicaRoutingDataSource routing = routing(true);
+        routing.setHealthyReplicas(List.of());
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        
+        assertThat(routing.getConnection()).isSameAs(primaryConnection);
+    }
+    
+    @Test
+    void withoutFallbackUnhealthyReplicasKeepServingReads() throws Exception {
+        ReplicaRoutingDataSource routing = routing(false);
+        routing.setHealthyReplicas(List.of());
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        
+        assertThat(routing.getConnection()).isIn(replica0Connection, replica1Connection);
+    }
+    
+    @Test
+    void suspendedReplicaIsSkippedUntilResumed() throws Exception {
+        ReplicaRoutingDataSource routing = routing(false);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        
+        routing.suspendReplica(0);
+        assertThat(List.of(routing.getConnection(), routing.getConnection()))
+                .containsOnly(replica1Connection);
+        
+        routing.suspendReplica(1);
+        assertThat(routing.getConnection()).isSameAs(primaryConnection);
+        
+        routing.resumeReplica(0);
+        routing.resumeReplica(1);
+        assertThat(List.of(routing.getConnection(), routing.getConnection()))
+                .containsExactlyInAnyOrder(replica0Connection, replica1Connection);
+    }
+    
+    private ReplicaRoutingDataSource routing(boolean fallbackToPrimary) {
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primary, List.of(replica0, replica1),
+                fallbackToPrimary);
+        routing.afterPropertiesSet();
+        return routing;
+    }
+}
@@ -0,0 +1,139 @@
+package com.example.jwtuserservice.controller;
+
+import com.example.jwtuserservice.dto.UserDto;
+import com.example.jwtuserservice.security.JwtUtil;
+import com.example.jwtuserservice.service.UserService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.util.Date;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class UserControllerTest {
+    
+    @Autowired
+    private MockMvc mockMvc;
+    
+    @Autowired
+    private UserService userService;
+    
+    @Autowired
+    private JwtUtil jwtUtil;
+    
+    private String authorization;
+    
+    @BeforeEach
+    void signIn() {
+        authorization = "Bearer " + jwtUtil.generateAccessToken(
+                User.withUsername("john.doe").password("unused").authorities("USER").build());
+    }
+    
+    @Test
+    void keysetPageStartsAfterTheCursorAndPointsToTheNextPage() throws Exception {
+        UserDto first = createUser();
+        UserDto second = createUser();
+        UserDto third = createUser();
+        
+        mockMvc.perform(authenticated(get("/api/users").param("after", first.getId().toString()).param("limit", "2")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].id").value(second.getId()))
+                .andExpect(jsonPath("$[1].id").value(third.getId()))
+                .andExpect(header().string("X-Next-Cursor", third.getId().toString()));
+    }
+    
+    @Test
+    void shortPageHasNoNextCursor() throws Exception {
+        UserDto first = createUser();
+        UserDto last = createUser();
+        
+        mockMvc.perform(authenticated(get("/api/users").param("after", first.getId().toString()).param("limit", "5")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].id").value(last.getId()))
+                .andExpect(header().doesNotExist("X-Next-Cursor"));
+    }
+    
+    @Test
+    void pageAfterTheLastIdIsEmpty() throws Exception {
+        UserDto last = createUser();
+        
+        mockMvc.perform(authenticated(get("/api/users").param("after", last.getId().toString()).param("limit", "5")))
+                .andExpect(status().isOk())
+                .andExpect(content().json("[]"))
+                .andExpect(header().doesNotExist("X-Next-Cursor"));
+    }
+    
+    @Test
+    void pageWithoutCursorStartsAtTheFirstUserAndLimitIsClamped() throws Exception {
+        UserDto first = userService.getUsersPage(null, 1).get(0);
+        
+        mockMvc.perform(authenticated(get("/api/users").param("limit", "0")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].id").value(first.getId()))
+                .andExpect(header().string("X-Next-Cursor", first.getId().toString()));
+    }
+    
+    @Test
+    void listIsNotModifiedUntilTheTableChanges() throws Exception {
+        String etag = mockMvc.perform(authenticated(get("/api/users").param("limit", "10")))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        
+        mockMvc.perform(authenticated(get("/api/users").param("limit", "10")).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag));
+        
+        createUser();
+        
+        mockMvc.perform(authenticated(get("/api/users").param("limit", "10")).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG));
+    }
+    
+    @Test
+    void singleUserIsNotModifiedUntilItsVersionChanges() throws Exception {
+        UserDto user = createUser();
+        String etag = mockMvc.perform(authenticated(get("/api/users/{id}", user.getId())))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        
+        mockMvc.perform(authenticated(get("/api/users/{id}", user.getId())).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+        
+        userService.updateUser(user.getId(), new UserDto(null, "Renamed", "Candidate", 30, new Date(0),
+                user.getVersion()));
+        
+        mockMvc.perform(authenticated(get("/api/users/{id}", user.getId())).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.firstName").value("Renamed"))
+                .andExpect(jsonPath("$.version").value(user.getVersion() + 1));
+    }
+    
+    private MockHttpServletRequestBuilder authenticated(MockHttpServletRequestBuilder request) {
+        return request.header(HttpHeaders.AUTHORIZATION, authorization);
+    }
+    
+    private UserDto createUser() {
+        return userService.createUser(new UserDto(null, "Page", "Candidate", 30, new Date(0)));
+    }
+}
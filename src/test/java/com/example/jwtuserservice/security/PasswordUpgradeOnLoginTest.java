@@ -0,0 +1,123 @@
+package com.example.jwtuserservice.security;
+
+import com.example.jwtuserservice.config.SecurityConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.provisioning.InMemoryUserDetailsManager;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PasswordUpgradeOnLoginTest {
+    
+    private static final String PASSWORD = "password123";
+    
+    private final InMemoryUserDetailsManager store = new InMemoryUserDetailsManager();
+    
+    @Test
+    void legacyUnprefixedBcryptHashIsReEncodedOnLogin() {
+        String legacy = new BCryptPasswordEncoder(10).encode(PASSWORD);
+        DaoAuthenticationProvider provider = provider("bcrypt", legacy);
+        
+        provider.authenticate(UsernamePasswordAuthenticationToken.unauthenticated("john", PASSWORD));
+        
+        String stored = store.loadUserByUsername("john").getPassword();
+        assertThat(stored).startsWith("{bcrypt}").isNotEqualTo(legacy);
+        assertThat(encoder("bcrypt").matches(PASSWORD, stored)).isTrue();
+    }
+    
+    @Test
+    void weakerBcryptCostIsUpgradedToConfiguredStrength() {
+        String weak = "{bcrypt}" + new BCryptPasswordEncoder(4).encode(PASSWORD);
+        DaoAuthenticationProvider provider = provider("bcrypt", weak);
+        
+        provider.authenticate(UsernamePasswordAuthenticationToken.unauthenticated("john", PASSWORD));
+        
+        String stored = store.loadUserByUsername("john").getPassword();
+        assertThat(stored).startsWith("{bcrypt}$2a$10$");
+    }
+    
+    @Test
+    void currentHashIsLeftAlone() {
+        String current = encoder("bcrypt").encode(PASSWORD);
+        DaoAuthenticationProvider provider = provider("bcrypt", current);
+        
+        provider.authenticate(UsernamePasswordAuthenticationToken.unauthenticated("john", PASSWORD));
+        
+        assertThat(store.loadUserByUsername("john").getPassword()).isEqualTo(current);
+    }
+    
+    @Test
+    void hashIsMigratedWhenTheConfiguredEncoderChanges() {
+        String bcrypt = encoder("bcrypt").encode(PASSWORD);
+        DaoAuthenticationProvider provider = provider("argon2", bcrypt);
+        
+        provider.authenticate(UsernamePasswordAuthenticationToken.unauthenticated("john", PASSWORD));
+        
+        String stored = store.loadUserByUsername("john").getPassword();
+        assertThat(stored).startsWith("{argon2}");
+        assertThat(encoder("argon2").matches(PASSWORD, stored)).isTrue();
+    }
+    
+    @Test
+    void failedLoginDoesNotTouchTheStoredHash() {
+        String legacy = new BCryptPasswordEncoder(10).encode(PASSWORD);
+        DaoAuthenticationProvider provider = provider("bcrypt", legacy);
+        
+        assertThatThrownBy(() -> provider.authenticate(
+                UsernamePasswordAuthenticationToken.unauthenticated("john", "wrong-password")))
+                .isInstanceOf(BadCredentialsException.class);
+        
+        assertThat(store.loadUserByUsername("john").getPassword()).isEqualTo(legacy);
+    }
+    
+    @Test
+    void upgradeEvictsTheCachedCredentials() {
+        String legacy = new BCryptPasswordEncoder(10).encode(PASSWORD);
+        store.createUser(User.withUsername("john").password(legacy).authorities("USER").build());
+        CachedUserDetailsService cached = new CachedUserDetailsService(store, Duration.ofMinutes(5), 100);
+        DaoAuthenticationProvider provider = new DaoAuthenticationProvider();
+        provider.setUserDetailsService(cached);
+        provider.setUserDetailsPasswordService(cached);
+        provider.setPasswordEncoder(encoder("bcrypt"));
+        
+        assertThat(cached.loadUserByUsername("john").getPassword()).isEqualTo(legacy);
+        provider.authenticate(UsernamePasswordAuthenticationToken.unauthenticated("john", PASSWORD));
+        
+        assertThat(cached.loadUserByUsername("john").getPassword()).startsWith("{bcrypt}");
+    }
+    
+    private DaoAuthenticationProvider provider(String encoderId, String storedHash) {
+        store.createUser(User.withUsername("john").password(storedHash).authorities("USER").build());
+        DaoAuthenticationProvider provider = new DaoAuthenticationProvider();
+        provider.setUserDetailsService(store);
+        provider.setUserDetailsPasswordService(store);
+        provider.setPasswordEncoder(encoder(encoderId));
+        return provider;
+    }
+    
+    // The production encoder from SecurityConfig, with its default settings
+    private static PasswordEncoder encoder(String encoderId) {
+        SecurityConfig config = new SecurityConfig();
+        ReflectionTestUtils.setField(config, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(config, "passwordEncoderId", encoderId);
+        ReflectionTestUtils.setField(config, "bcryptStrength", 10);
+        ReflectionTestUtils.setField(config, "argon2SaltLength", 16);
+        ReflectionTestUtils.setField(config, "argon2HashLength", 32);
+        ReflectionTestUtils.setField(config, "argon2Parallelism", 1);
+        ReflectionTestUtils.setField(config, "argon2MemoryKb", 16384);
+        ReflectionTestUtils.setField(config, "argon2Iterations", 2);
+        ReflectionTestUtils.setField(config, "pbkdf2SaltLength", 16);
+        ReflectionTestUtils.setField(config, "pbkdf2Iterations", 310000);
+        return config.passwordEncoder();
+    }
+}
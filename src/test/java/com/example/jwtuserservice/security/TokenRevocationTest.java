@@ -0,0 +1,105 @@
+package com.example.jwtuserservice.security;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TokenRevocationTest {
+    
+    private final UserDetails user = User.withUsername("john").password("unused").authorities("USER").build();
+    
+    private JwtUtil jwtUtil;
+    
+    @BeforeEach
+    void setUp() {
+        VerifiedTokenCache cache = new VerifiedTokenCache();
+        ReflectionTestUtils.setField(cache, "enabled", true);
+        ReflectionTestUtils.setField(cache, "maxSize", 1000L);
+        ReflectionTestUtils.setField(cache, "maxTtlMillis", 86_400_000L);
+        cache.init();
+        
+        jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "secret", "test-secret-test-secret-test-secret-test");
+        ReflectionTestUtils.setField(jwtUtil, "expiration", 900_000L);
+        ReflectionTestUtils.setField(jwtUtil, "refreshExpiration", 86_400_000L);
+        ReflectionTestUtils.setField(jwtUtil, "verifiedTokenCache", cache);
+        ReflectionTestUtils.setField(jwtUtil, "tokenRevocationStore", new InMemoryTokenRevocationStore());
+        jwtUtil.init();
+    }
+    
+    @Test
+    void revokedAccessTokenIsRejectedEvenWhenCached() {
+        String access = jwtUtil.generateAccessToken(user, "session-1");
+        VerifiedToken verified = jwtUtil.verify(access);
+        
+        jwtUtil.revoke(verified);
+        
+        assertThatThrownBy(() -> jwtUtil.verify(access)).isInstanceOf(RevokedTokenException.class);
+    }
+    
+    @Test
+    void signingOutRevokesTheRefreshTokenOfTheSameSession() {
+        String access = jwtUtil.generateAccessToken(user, "session-1");
+        String refresh = jwtUtil.generateRefreshToken(user, "session-1");
+        assertThat(jwtUtil.verify(refresh).isRefreshToken()).isTrue();
+        
+        jwtUtil.revoke(jwtUtil.verify(access));
+        
+        assertThatThrownBy(() -> jwtUtil.verify(refresh)).isInstanceOf(RevokedTokenException.class);
+    }
+    
+    @Test
+    void tokensRefreshedWithinTheSessionAreRevokedToo() {
+        String access = jwtUtil.generateAccessToken(user, "session-1");
+        String refreshed = jwtUtil.generateAccessToken(user, jwtUtil.verify(access).getSessionId());
+        
+        jwtUtil.revoke(jwtUtil.verify(access));
+        
+        assertThatThrownBy(() -> jwtUtil.verify(refreshed)).isInstanceOf(RevokedTokenException.class);
+    }
+    
+    @Test
+    void otherSessionsOfTheSameUserStayValid() {
+        String access = jwtUtil.generateAccessToken(user, "session-1");
+        String otherAccess = jwtUtil.generateAccessToken(user, "session-2");
+        String otherRefresh = jwtUtil.generateRefreshToken(user, "session-2");
+        
+        jwtUtil.revoke(jwtUtil.verify(access));
+        
+        assertThat(jwtUtil.verify(otherAccess).getSubject()).isEqualTo("john");
+        assertThat(jwtUtil.verify(otherRefresh).getSessionId()).isEqualTo("session-2");
+    }
+    
+    @Test
+    void everyTokenGetsItsOwnId() {
+        VerifiedToken first = jwtUtil.verify(jwtUtil.generateAccessToken(user, "session-1"));
+        VerifiedToken second = jwtUtil.verify(jwtUtil.generateAccessToken(user, "session-1"));
+        
+        assertThat(first.getId()).isNotNull().isNotEqualTo(second.getId());
+    }
+    
+    @Test
+    void revokingAgainWithALaterExpirySurvivesThePurgeOfTheEarlierOne() throws InterruptedException {
+        InMemoryTokenRevocationStore store = new InMemoryTokenRevocationStore();
+        Instant soon = Instant.now().plusMillis(1000);
+        store.revoke("extended", soon);
+        store.revoke("extended", Instant.now().plus(Duration.ofHours(1)));
+        store.revoke("expiring", soon);
+        
+        // Wait until the earlier second's bucket is due
+        Thread.sleep(soon.toEpochMilli() / 1000 * 1000 + 1000 - System.currentTimeMillis() + 50);
+        store.purgeExpired();
+        
+        assertThat(store.isRevoked("extended")).isTrue();
+        assertThat(store.isRevoked("expiring")).isFalse();
+        assertThat(store.size()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.jwtuserservice.service;
+
+import com.example.jwtuserservice.dto.UserDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UserChangeNotifierTest {
+    
+    private final UserTableVersion tableVersion = new UserTableVersion();
+    
+    private final List<String> etagsSeenByListener = new ArrayList<>();
+    
+    private final UserChangeNotifier notifier = new UserChangeNotifier();
+    
+    @BeforeEach
+    void setUp() {
+        // Records the table ETag while it applies the change, as a cache or index would be mid-update
+        UserChangeListener listener = new UserChangeListener() {
+            @Override
+            public void userSaved(UserDto user) {
+                etagsSeenByListener.add(tableVersion.etag());
+            }
+            
+            @Override
+            public void usersDeleted(Collection<Long> ids) {
+                etagsSeenByListener.add(tableVersion.etag());
+            }
+        };
+        ReflectionTestUtils.setField(notifier, "listeners", List.of(listener));
+        ReflectionTestUtils.setField(notifier, "tableVersion", tableVersion);
+    }
+    
+    @Test
+    void tableVersionIsBumpedOnlyAfterListenersHaveAppliedASave() {
+        String before = tableVersion.etag();
+        
+        notifier.userSaved(new UserDto(1L, "John", "Doe", 30, new Date(0)));
+        
+        assertThat(etagsSeenByListener).containsExactly(before);
+        assertThat(tableVersion.etag()).isNotEqualTo(before);
+    }
+    
+    @Test
+    void tableVersionIsBumpedOnlyAfterListenersHaveAppliedADelete() {
+        String before = tableVersion.etag();
+        
+        notifier.usersDeleted(List.of(1L, 2L));
+        
+        assertThat(etagsSeenByListener).containsExactly(before);
+        assertThat(tableVersion.etag()).isNotEqualTo(before);
+    }
+    
+    @Test
+    void emptyDeleteLeavesTheVersionAlone() {
+        String before = tableVersion.etag();
+        
+        notifier.usersDeleted(List.of());
+        
+        assertThat(etagsSeenByListener).isEmpty();
+        assertThat(tableVersion.etag()).isEqualTo(before);
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.jwtuserservice.service;
+
+import com.example.jwtuserservice.dto.UserDto;
+import com.example.jwtuserservice.entity.Login;
+import com.example.jwtuserservice.repository.LoginRepository;
+import com.example.jwtuserservice.repository.UserRepository;
+import com.example.jwtuserservice.security.CachedUserDetailsService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class UserDeleteTest {
+    
+    @Autowired
+    private UserService userService;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private LoginRepository loginRepository;
+    
+    @Autowired
+    private CachedUserDetailsService userDetailsService;
+    
+    @Test
+    void deletesUsersAndTheirLoginsAcrossSeveralChunks() {
+        List<Long> ids = new ArrayList<>();
+        List<String> usernames = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            UserDto user = createUser();
+            ids.add(user.getId());
+            usernames.add(createLogin(user.getId()));
+        }
+        
+        int deleted = userService.deleteUsers(ids);
+        
+        assertThat(deleted).isEqualTo(5);
+        assertThat(userRepository.findAllById(ids)).isEmpty();
+        for (String username : usernames) {
+            assertThat(loginRepository.existsByUsername(username)).isFalse();
+        }
+    }
+    
+    @Test
+    void countsDuplicateAndMissingIdsCorrectly() {
+        UserDto first = createUser();
+        UserDto second = createUser();
+        long missing = second.getId() + 1_000_000;
+        
+        int deleted = userService.deleteUsers(List.of(first.getId(), first.getId(), missing, second.getId()));
+        
+        assertThat(deleted).isEqualTo(2);
+        assertThat(userService.deleteUsers(List.of(missing))).isZero();
+    }
+    
+    @Test
+    void leavesOtherUsersAlone() {
+        UserDto deletedUser = createUser();
+        UserDto kept = createUser();
+        String keptUsername = createLogin(kept.getId());
+        
+        userService.deleteUser(deletedUser.getId());
+        
+        assertThat(userRepository.existsById(kept.getId())).isTrue();
+        assertThat(loginRepository.existsByUsername(keptUsername)).isTrue();
+    }
+    
+    @Test
+    void evictsCachedUsersAndCredentials() {
+        UserDto user = createUser();
+        String username = createLogin(user.getId());
+        // Warm both caches
+        assertThat(userService.getUserById(user.getId())).isPresent();
+        assertThat(userDetailsService.loadUserByUsername(username).getUsername()).isEqualTo(username);
+        
+        assertThat(userService.deleteUser(user.getId())).isTrue();
+        
+        assertThat(userService.getUserById(user.getId())).isEmpty();
+        assertThatThrownBy(() -> userDetailsService.loadUserByUsername(username))
+                .isInstanceOf(UsernameNotFoundException.class);
+    }
+    
+    private UserDto createUser() {
+        return userService.createUser(new UserDto(null, "Delete", "Candidate", 30, new Date(0)));
+    }
+    
+    private String createLogin(Long userId) {
+        String username = "delete-" + UUID.randomUUID();
+        loginRepository.save(new Login(username, "{noop}unused", userRepository.findById(userId).orElseThrow()));
+        return username;
+    }
+}
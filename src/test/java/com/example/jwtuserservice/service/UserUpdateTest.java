@@ -0,0 +1,99 @@
+package com.example.jwtuserservice.service;
+
+import com.example.jwtuserservice.dto.BatchRowResult;
+import com.example.jwtuserservice.dto.UserDto;
+import com.example.jwtuserservice.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.Date;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class UserUpdateTest {
+    
+    @Autowired
+    private UserService userService;
+    
+    @Autowired
+    private UserBatchService userBatchService;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Test
+    void matchingVersionUpdatesAndIncrementsIt() {
+        UserDto user = createUser();
+        
+        UserDto updated = userService.updateUser(user.getId(), changes(user.getVersion())).orElseThrow();
+        
+        assertThat(updated.getVersion()).isEqualTo(user.getVersion() + 1);
+        UserDto stored = userRepository.findDtoById(user.getId()).orElseThrow();
+        assertThat(stored.getFirstName()).isEqualTo("Updated");
+        assertThat(stored.getVersion()).isEqualTo(updated.getVersion());
+    }
+    
+    @Test
+    void staleVersionIsRejectedAndLeavesTheRowAlone() {
+        UserDto user = createUser();
+        userService.updateUser(user.getId(), changes(user.getVersion()));
+        
+        assertThatThrownBy(() -> userService.updateUser(user.getId(), changes(user.getVersion())))
+                .isInstanceOf(OptimisticLockingFailureException.class);
+        assertThat(userRepository.findVersionById(user.getId())).contains(user.getVersion() + 1);
+    }
+    
+    @Test
+    void updateWithoutVersionReturnsTheNewVersion() {
+        UserDto user = createUser();
+        
+        UserDto updated = userService.updateUser(user.getId(), changes(null)).orElseThrow();
+        
+        assertThat(updated.getVersion()).isEqualTo(user.getVersion() + 1);
+        assertThat(userRepository.findVersionById(user.getId())).contains(updated.getVersion());
+    }
+    
+    @Test
+    void missingUserIsNotFoundWithOrWithoutVersion() {
+        long missing = createUser().getId() + 1_000_000;
+        
+        assertThat(userService.updateUser(missing, changes(0L))).isEmpty();
+        assertThat(userService.updateUser(missing, changes(null))).isEmpty();
+    }
+    
+    @Test
+    void batchUpdateReportsStaleRowsAsConflicts() {
+        UserDto current = createUser();
+        UserDto stale = createUser();
+        userService.updateUser(stale.getId(), changes(stale.getVersion()));
+        UserDto currentRow = changes(current.getVersion());
+        currentRow.setId(current.getId());
+        UserDto staleRow = changes(stale.getVersion());
+        staleRow.setId(stale.getId());
+        staleRow.setFirstName("Overwritten");
+        
+        List<BatchRowResult> results = userBatchService.updateUsers(List.of(currentRow, staleRow).iterator());
+        
+        assertThat(results).extracting(BatchRowResult::getStatus)
+                .containsExactly(BatchRowResult.Status.UPDATED, BatchRowResult.Status.CONFLICT);
+        assertThat(userRepository.findVersionById(current.getId())).contains(current.getVersion() + 1);
+        UserDto untouched = userRepository.findDtoById(stale.getId()).orElseThrow();
+        assertThat(untouched.getFirstName()).isEqualTo("Updated");
+        assertThat(untouched.getVersion()).isEqualTo(stale.getVersion() + 1);
+    }
+    
+    private UserDto createUser() {
+        return userService.createUser(new UserDto(null, "Update", "Candidate", 30, new Date(0)));
+    }
+    
+    private static UserDto changes(Long version) {
+        return new UserDto(null, "Updated", "Candidate", 31, new Date(0), version);
+    }
+}